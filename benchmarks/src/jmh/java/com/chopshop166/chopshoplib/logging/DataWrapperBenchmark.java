@@ -0,0 +1,104 @@
+package com.chopshop166.chopshoplib.logging;
+
+import java.util.concurrent.TimeUnit;
+import org.littletonrobotics.junction.LogTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import com.chopshop166.chopshoplib.logging.data.DifferentialDriveData;
+import com.chopshop166.chopshoplib.logging.data.MotorControllerData;
+import com.chopshop166.chopshoplib.logging.data.SwerveDriveData;
+import com.chopshop166.chopshoplib.logging.data.SwerveModuleData;
+import com.chopshop166.chopshoplib.motors.SmartMotorController;
+
+/**
+ * Measure logging the standard data objects, with and without delta logging.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DataWrapperBenchmark {
+
+    /** Whether delta logging is on. */
+    @Param({"false", "true"})
+    public boolean delta;
+
+    /** A single motor. */
+    private final MotorControllerData motor = new MotorControllerData();
+    /** A full swerve drive. */
+    private final SwerveDriveData swerve = new SwerveDriveData();
+    /** A differential drive. */
+    private final DifferentialDriveData differential = new DifferentialDriveData();
+    /** The table to log the motor into. */
+    private final LogTable motorTable = new LogTable(0);
+    /** The table to log the swerve drive into. */
+    private final LogTable swerveTable = new LogTable(0);
+    /** The table to log the differential drive into. */
+    private final LogTable differentialTable = new LogTable(0);
+
+    /** Fill the data objects and log them once, so there's something to replay. */
+    @Setup
+    public void setup() {
+        LogState.setDeltaEnabled(this.delta);
+        final SmartMotorController source = new SmartMotorController();
+        this.motor.updateInputData(source);
+        for (final SwerveModuleData module : new SwerveModuleData[] {this.swerve.frontLeft,
+                this.swerve.frontRight, this.swerve.rearLeft, this.swerve.rearRight}) {
+            module.driveMotor.updateInputData(source);
+            module.steeringMotor.updateInputData(source);
+        }
+        this.differential.left.updateInputData(source);
+        this.differential.right.updateInputData(source);
+        this.motor.toLog(this.motorTable);
+        this.swerve.toLog(this.swerveTable);
+        this.differential.toLog(this.differentialTable);
+    }
+
+    /** Turn delta logging back off. */
+    @TearDown
+    public void tearDown() {
+        LogState.setDeltaEnabled(false);
+    }
+
+    /** Log a single motor. */
+    @Benchmark
+    public void motorToLog() {
+        this.motor.toLog(this.motorTable);
+    }
+
+    /** Replay a single motor. */
+    @Benchmark
+    public void motorFromLog() {
+        this.motor.fromLog(this.motorTable);
+    }
+
+    /** Log a full swerve drive. */
+    @Benchmark
+    public void swerveToLog() {
+        this.swerve.toLog(this.swerveTable);
+    }
+
+    /** Replay a full swerve drive. */
+    @Benchmark
+    public void swerveFromLog() {
+        this.swerve.fromLog(this.swerveTable);
+    }
+
+    /** Log a differential drive. */
+    @Benchmark
+    public void differentialToLog() {
+        this.differential.toLog(this.differentialTable);
+    }
+
+    /** Replay a differential drive. */
+    @Benchmark
+    public void differentialFromLog() {
+        this.differential.fromLog(this.differentialTable);
+    }
+}
@@ -0,0 +1,99 @@
+package com.chopshop166.chopshoplib.logging;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+import org.littletonrobotics.junction.LogTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compare reading and logging fields through reflection against the compiled method handles.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FieldAccessBenchmark {
+
+    /** Simple data object to read from. */
+    public static class Data {
+        /** A primitive field. */
+        public double value = 1.5;
+        /** An array field. */
+        public double[] values = {1.0, 2.0, 3.0};
+    }
+
+    /** The object being logged. */
+    private final Data data = new Data();
+    /** The table to log into. */
+    private final LogTable table = new LogTable(0);
+    /** The delta logging state, which stays off. */
+    private final LogState state = new LogState();
+    /** The primitive field. */
+    private Field valueField;
+    /** The array field. */
+    private Field valuesField;
+    /** The compiled primitive field. */
+    private LogConfig valueConfig;
+    /** The compiled array field. */
+    private LogConfig valuesConfig;
+
+    /**
+     * Look up the fields.
+     *
+     * @throws NoSuchFieldException If the data class changed.
+     */
+    @Setup
+    public void setup() throws NoSuchFieldException {
+        this.valueField = Data.class.getField("value");
+        this.valuesField = Data.class.getField("values");
+        this.valueConfig = LogConfig.fromField(this.valueField);
+        this.valuesConfig = LogConfig.fromField(this.valuesField);
+    }
+
+    /**
+     * Read a double with {@link Field#getDouble}.
+     *
+     * @return The value.
+     * @throws IllegalAccessException Never.
+     */
+    @Benchmark
+    public double reflectionGetDouble() throws IllegalAccessException {
+        return this.valueField.getDouble(this.data);
+    }
+
+    /**
+     * Read a double with the compiled getter.
+     *
+     * @return The value.
+     * @throws Throwable Never.
+     */
+    @Benchmark
+    public double handleGetDouble() throws Throwable {
+        return this.valueConfig.getDouble(this.data);
+    }
+
+    /**
+     * Log both fields the way the reflective logger used to.
+     *
+     * @throws IllegalAccessException Never.
+     */
+    @Benchmark
+    public void reflectionToLog() throws IllegalAccessException {
+        this.table.put("value", this.valueField.getDouble(this.data));
+        this.table.put("values", (double[]) this.valuesField.get(this.data));
+    }
+
+    /** Log both fields through the compiled handles. */
+    @Benchmark
+    public void handleToLog() {
+        this.state.begin(2);
+        this.valueConfig.toLog(this.table, this.data, this.state, 0);
+        this.valuesConfig.toLog(this.table, this.data, this.state, 1);
+        this.state.end();
+    }
+}
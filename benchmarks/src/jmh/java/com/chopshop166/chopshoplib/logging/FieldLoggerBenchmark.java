@@ -0,0 +1,88 @@
+package com.chopshop166.chopshoplib.logging;
+
+import java.util.concurrent.TimeUnit;
+import org.littletonrobotics.junction.inputs.LoggableInputs;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import com.chopshop166.chopshoplib.logging.data.MotorControllerData;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.units.measure.Distance;
+
+/**
+ * Measure finding the logger for a field type.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FieldLoggerBenchmark {
+
+    /** An unregistered enum. */
+    public enum Unregistered {
+        /** Only value. */
+        VALUE
+    }
+
+    /**
+     * Look up a registered primitive type.
+     *
+     * @return The logger.
+     */
+    @Benchmark
+    public FieldLogger exactPrimitive() {
+        return FieldLogger.forType(double.class);
+    }
+
+    /**
+     * Look up a registered measure.
+     *
+     * @return The logger.
+     */
+    @Benchmark
+    public FieldLogger exactMeasure() {
+        return FieldLogger.forType(Distance.class);
+    }
+
+    /**
+     * Look up a struct type through its interface.
+     *
+     * @return The logger.
+     */
+    @Benchmark
+    public FieldLogger fallbackStruct() {
+        return FieldLogger.forType(Pose2d.class);
+    }
+
+    /**
+     * Look up a nested data object through its interface.
+     *
+     * @return The logger.
+     */
+    @Benchmark
+    public FieldLogger fallbackInputs() {
+        return FieldLogger.forType(MotorControllerData.class);
+    }
+
+    /**
+     * Look up an enum that wasn't registered.
+     *
+     * @return The logger.
+     */
+    @Benchmark
+    public FieldLogger fallbackEnum() {
+        return FieldLogger.forType(Unregistered.class);
+    }
+
+    /**
+     * Look up a type that can't be logged.
+     *
+     * @return Null.
+     */
+    @Benchmark
+    public FieldLogger unloggable() {
+        return FieldLogger.forType(LoggableInputs[].class);
+    }
+}
@@ -0,0 +1,62 @@
+package com.chopshop166.chopshoplib.logging;
+
+import java.util.concurrent.TimeUnit;
+import org.littletonrobotics.junction.LogTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import com.chopshop166.chopshoplib.states.OpenClose;
+
+/**
+ * Measure reading a data object back from a table, the way replay does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ReplayBenchmark {
+
+    /** An unregistered enum, which goes through the string lookup. */
+    public enum Mode {
+        /** First value. */
+        IDLE,
+        /** Second value. */
+        RUNNING,
+        /** Third value. */
+        STOPPED
+    }
+
+    /** Data object that goes through the reflective path. */
+    public static class Data extends DataWrapper {
+        /** A primitive field. */
+        public double value = 1.5;
+        /** An array field. */
+        public double[] values = {1.0, 2.0, 3.0};
+        /** A final field, which can't be replayed. */
+        public final int constant = 4;
+        /** A registered enum. */
+        public OpenClose state = OpenClose.OPEN;
+        /** An unregistered enum. */
+        public Mode mode = Mode.STOPPED;
+    }
+
+    /** The object being replayed into. */
+    private final Data data = new Data();
+    /** The table holding a logged cycle. */
+    private final LogTable table = new LogTable(0);
+
+    /** Log a cycle to replay from. */
+    @Setup
+    public void setup() {
+        new Data().toLog(this.table);
+    }
+
+    /** Read every field back from the table. */
+    @Benchmark
+    public void fromLog() {
+        this.data.fromLog(this.table);
+    }
+}
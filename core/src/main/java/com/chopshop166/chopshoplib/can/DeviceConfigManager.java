@@ -0,0 +1,344 @@
+package com.chopshop166.chopshoplib.can;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.BooleanSupplier;
+import com.revrobotics.PersistMode;
+import com.revrobotics.REVLibError;
+import com.revrobotics.ResetMode;
+import com.revrobotics.spark.SparkBase;
+import com.revrobotics.spark.config.SparkBaseConfig;
+import com.revrobotics.spark.config.SparkMaxConfig;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Filesystem;
+
+/**
+ * Remembers the configuration applied to each device, so unchanged parameters aren't sent again.
+ *
+ * Each call names a parameter of a device and gives its value. The configuration is only applied
+ * if the value differs from the last one applied to that device. Spark parameters are applied
+ * without being persisted; {@link #persistAll()} then writes each Spark's flash once, and only if
+ * its parameters differ from what was persisted on a previous boot with the same firmware. While
+ * the robot is starting that waits for {@link DeviceConfigurator#runAll()}, and afterwards each
+ * change is persisted as soon as it's applied. If a Spark is replaced with one that has the same
+ * CAN ID and firmware, call {@link #invalidatePersisted(int)} so its parameters get written.
+ *
+ * Parameters are sent through {@link DeviceConfigurator}, so they run in the background while the
+ * robot is starting. A parameter that fails to apply is forgotten, so it's sent again next time.
+ */
+public final class DeviceConfigManager {
+
+    /** The name of the file that records what was persisted to each Spark. */
+    private static final String CACHE_NAME = "chopshoplib-device-config.properties";
+    /** The file that records what was persisted, or null to use the default. */
+    private static File cacheFile;
+    /** Guards the applied parameters, which queued tasks update from other threads. */
+    private static final Object LOCK = new Object();
+    /** Guards the file that records what was persisted. */
+    private static final Object CACHE_LOCK = new Object();
+    /** The last value applied for each parameter of each device. */
+    private static final Map<Object, Map<String, Object>> APPLIED = new IdentityHashMap<>();
+    /** Sparks that had parameters applied since they were last persisted. */
+    private static final Set<SparkBase> UNPERSISTED =
+            Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private DeviceConfigManager() {
+    }
+
+    /**
+     * Change the file that records what was persisted to each Spark.
+     *
+     * @param file The cache file.
+     */
+    public static void setCacheFile(final File file) {
+        cacheFile = file;
+    }
+
+    /**
+     * Apply a parameter, unless it already has this value.
+     *
+     * @param device The device being configured.
+     * @param parameter The name of the parameter.
+     * @param value The new value, compared deeply with the last one.
+     * @param apply Sends the parameter to the device, returning false if it failed.
+     * @return True if it was sent or queued.
+     */
+    public static boolean apply(final Object device, final String parameter, final Object value,
+            final BooleanSupplier apply) {
+        return apply(device, parameter, value, false, apply);
+    }
+
+    /**
+     * Apply a parameter, unless it already has this value.
+     *
+     * @param device The device being configured.
+     * @param parameter The name of the parameter.
+     * @param value The new value, compared deeply with the last one.
+     * @param reset Whether applying it resets every other parameter of the device.
+     * @param apply Sends the parameter to the device, returning false if it failed.
+     * @return True if it was sent or queued.
+     */
+    /* package */ static boolean apply(final Object device, final String parameter,
+            final Object value, final boolean reset, final BooleanSupplier apply) {
+        final Map<String, Object> applied;
+        synchronized (LOCK) {
+            applied = APPLIED.computeIfAbsent(device, k -> new HashMap<>());
+            if (applied.containsKey(parameter)
+                    && Objects.deepEquals(applied.get(parameter), value)) {
+                return false;
+            }
+            if (reset) {
+                applied.clear();
+            }
+            applied.put(parameter, value);
+        }
+        DeviceConfigurator.configure(device, parameter, () -> {
+            boolean succeeded = false;
+            try {
+                succeeded = apply.getAsBoolean();
+            } finally {
+                if (!succeeded) {
+                    synchronized (LOCK) {
+                        applied.remove(parameter, value);
+                    }
+                }
+            }
+            return succeeded;
+        });
+        return true;
+    }
+
+    /**
+     * Apply a parameter to a Spark, unless it already has this value.
+     *
+     * While the robot is starting, the parameter isn't persisted until {@link #persistAll()} is
+     * called. Resetting the safe parameters forgets everything else that was applied to the Spark.
+     *
+     * @param spark The Spark.
+     * @param parameter The name of the parameter.
+     * @param value The new value, compared deeply with the last one.
+     * @param config The configuration that sets the parameter.
+     * @param reset Whether to reset the safe parameters first.
+     * @return True if it was sent or queued.
+     */
+    public static boolean configureSpark(final SparkBase spark, final String parameter,
+            final Object value, final SparkBaseConfig config, final ResetMode reset) {
+        final boolean changed = apply(spark, parameter, value,
+                reset == ResetMode.kResetSafeParameters, () -> spark.configure(config, reset,
+                        PersistMode.kNoPersistParameters) == REVLibError.kOk);
+        if (changed) {
+            synchronized (LOCK) {
+                UNPERSISTED.add(spark);
+            }
+            if (!DeviceConfigurator.isCollecting()) {
+                // There's no startup persistAll() left to write it, so do it after applying it
+                DeviceConfigurator.configure(spark, "persist", () -> {
+                    persist(List.of(spark));
+                    return true;
+                });
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Write the parameters of every changed Spark to its flash.
+     *
+     * A Spark is skipped if the same parameters were persisted on a previous boot with the same
+     * firmware. Call this after {@link DeviceConfigurator#runAll()}, so every queued parameter has
+     * been applied. {@link com.chopshop166.chopshoplib.commands.CommandRobot} does this in
+     * {@code robotInit}.
+     *
+     * A Spark whose tasks didn't finish before {@code runAll()} timed out isn't persisted yet.
+     * Instead it's persisted in the background once its tasks are done, so what gets written and
+     * recorded is what was actually applied.
+     */
+    public static void persistAll() {
+        final List<SparkBase> ready = new ArrayList<>();
+        final List<SparkBase> sparks;
+        synchronized (LOCK) {
+            sparks = new ArrayList<>(UNPERSISTED);
+        }
+        for (final SparkBase spark : sparks) {
+            final boolean queued = DeviceConfigurator.runAfterPending(spark, "persist", () -> {
+                persist(List.of(spark));
+                return true;
+            });
+            if (!queued) {
+                ready.add(spark);
+            }
+        }
+        persist(ready);
+    }
+
+    /**
+     * Write the parameters of some Sparks to their flash, if they changed.
+     *
+     * Sparks that were already persisted since their last change are skipped.
+     *
+     * @param sparks The Sparks to persist.
+     */
+    private static void persist(final Collection<SparkBase> sparks) {
+        final Map<SparkBase, String> images = new IdentityHashMap<>();
+        synchronized (LOCK) {
+            for (final SparkBase spark : sparks) {
+                if (UNPERSISTED.remove(spark)) {
+                    images.put(spark, describe(APPLIED.get(spark)));
+                }
+            }
+        }
+        if (images.isEmpty()) {
+            return;
+        }
+        synchronized (CACHE_LOCK) {
+            final Properties persisted = loadCache();
+            boolean cacheChanged = false;
+            for (final Map.Entry<SparkBase, String> entry : images.entrySet()) {
+                final SparkBase spark = entry.getKey();
+                final String key = keyPrefix(spark.getDeviceId()) + spark.getFirmwareVersion();
+                cacheChanged |= persistIfChanged(persisted, key, entry.getValue(),
+                        () -> spark.configure(new SparkMaxConfig(),
+                                ResetMode.kNoResetSafeParameters,
+                                PersistMode.kPersistParameters) == REVLibError.kOk);
+            }
+            if (cacheChanged) {
+                saveCache(persisted);
+            }
+        }
+    }
+
+    /**
+     * Forget what was persisted to a Spark, so its parameters are written to flash again.
+     *
+     * Use this after replacing a Spark with one that has the same CAN ID and firmware.
+     *
+     * @param deviceId The CAN ID of the Spark.
+     */
+    public static void invalidatePersisted(final int deviceId) {
+        synchronized (CACHE_LOCK) {
+            final Properties persisted = loadCache();
+            if (persisted.keySet().removeIf(
+                    key -> key.toString().startsWith(keyPrefix(deviceId)))) {
+                saveCache(persisted);
+            }
+        }
+    }
+
+    /**
+     * Persist a device's parameters, unless the same ones were already persisted.
+     *
+     * @param persisted The record of what was persisted, updated if it succeeds.
+     * @param key The key of the device in the record.
+     * @param image A description of the parameters.
+     * @param persist Writes the parameters to flash, returning false if it failed.
+     * @return True if the record changed.
+     */
+    /* package */ static boolean persistIfChanged(final Properties persisted, final String key,
+            final String image, final BooleanSupplier persist) {
+        if (image.equals(persisted.getProperty(key))) {
+            return false;
+        }
+        if (!persist.getAsBoolean()) {
+            DriverStation.reportWarning("Could not persist " + key, false);
+            return false;
+        }
+        persisted.setProperty(key, image);
+        return true;
+    }
+
+    /**
+     * Get the start of the record keys for a Spark.
+     *
+     * @param deviceId The CAN ID of the Spark.
+     * @return The key prefix, followed by the firmware version in each key.
+     */
+    private static String keyPrefix(final int deviceId) {
+        return "spark." + deviceId + ".fw";
+    }
+
+    /**
+     * Forget everything applied to a device, so the next configuration is always sent.
+     *
+     * @param device The device.
+     */
+    public static void forget(final Object device) {
+        synchronized (LOCK) {
+            APPLIED.remove(device);
+        }
+    }
+
+    /**
+     * Describe the parameters of a device, in a stable order.
+     *
+     * @param applied The applied parameters.
+     * @return A description that's equal whenever the parameters are.
+     */
+    private static String describe(final Map<String, Object> applied) {
+        final StringBuilder builder = new StringBuilder();
+        for (final Map.Entry<String, Object> entry : new TreeMap<>(applied).entrySet()) {
+            builder.append(entry.getKey()).append('=')
+                    .append(Arrays.deepToString(new Object[] {entry.getValue()})).append(';');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Get the file that records what was persisted.
+     *
+     * @return The cache file.
+     */
+    private static File cacheFile() {
+        if (cacheFile == null) {
+            cacheFile = new File(Filesystem.getOperatingDirectory(), CACHE_NAME);
+        }
+        return cacheFile;
+    }
+
+    /**
+     * Read the record of what was persisted.
+     *
+     * @return The persisted parameters of each Spark.
+     */
+    private static Properties loadCache() {
+        final Properties properties = new Properties();
+        final File file = cacheFile();
+        if (file.isFile()) {
+            try (InputStream in = new FileInputStream(file)) {
+                properties.load(in);
+            } catch (final IOException ex) {
+                DriverStation.reportWarning("Could not read " + file, false);
+            }
+        }
+        return properties;
+    }
+
+    /**
+     * Write the record of what was persisted.
+     *
+     * @param properties The persisted parameters of each Spark.
+     */
+    private static void saveCache(final Properties properties) {
+        final File file = cacheFile();
+        try (OutputStream out = new FileOutputStream(file)) {
+            properties.store(out, "Parameters persisted to each Spark");
+        } catch (final IOException ex) {
+            DriverStation.reportWarning("Could not write " + file, false);
+        }
+    }
+}
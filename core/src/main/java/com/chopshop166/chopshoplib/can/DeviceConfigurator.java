@@ -0,0 +1,460 @@
+package com.chopshop166.chopshoplib.can;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import org.littletonrobotics.junction.Logger;
+import com.ctre.phoenix.motorcontrol.can.BaseMotorController;
+import com.ctre.phoenix6.hardware.ParentDevice;
+import com.revrobotics.spark.SparkBase;
+import edu.wpi.first.wpilibj.DriverStation;
+
+/**
+ * Runs the configuration of every device at once when the robot starts.
+ *
+ * Configuring a device blocks until it acknowledges over CAN, so configuring each device in its
+ * constructor adds up to several seconds. While collecting, {@link #configure} hands the task to
+ * a background thread instead of blocking, so every device is configured concurrently. Each
+ * device's tasks run one at a time in the order they were given, and only a few tasks on each bus
+ * run at the same time so the bus isn't flooded. {@link #runAll()} waits for everything to finish,
+ * up to a timeout, and stops collecting.
+ *
+ * Anything that talks to a device directly should call {@link #await(Object)} first, so it happens
+ * after the device's queued tasks. The motor wrappers do this when the raw controller is fetched.
+ *
+ * {@link com.chopshop166.chopshoplib.commands.CommandRobot} starts collecting when it's
+ * constructed, and waits for everything in {@code robotInit}. Once that's happened, or if
+ * collecting never started, tasks run immediately on the calling thread.
+ */
+public final class DeviceConfigurator {
+
+    /** The default number of tasks run at the same time. */
+    public static final int DEFAULT_THREADS = 8;
+    /** The default number of tasks on one bus run at the same time. */
+    public static final int DEFAULT_BUS_LIMIT = 4;
+    /** The default time {@link #runAll()} waits for every device, in seconds. */
+    public static final double DEFAULT_TIMEOUT = 30.0;
+    /** The bus that devices without a CAN FD bus are on. */
+    private static final String RIO_BUS = "rio";
+    /** How long idle configuration threads are kept, in seconds. */
+    private static final long KEEP_ALIVE_SECONDS = 5;
+
+    /** The tasks of each device that was configured while collecting, until they finish. */
+    private static final Map<Object, Job> JOBS = new IdentityHashMap<>();
+    /** The tasks on each bus allowed to run at the same time. */
+    private static final Map<String, Semaphore> BUSES = new HashMap<>();
+    /** Whether tasks are run in the background. */
+    private static boolean collecting;
+    /** The number of tasks run at the same time. */
+    private static int threads = DEFAULT_THREADS;
+    /** The number of tasks on one bus run at the same time. */
+    private static int busLimit = DEFAULT_BUS_LIMIT;
+    /** The time {@link #runAll()} waits for every device, in seconds. */
+    private static double timeout = DEFAULT_TIMEOUT;
+    /** The threads that run the tasks, once something has been collected. */
+    private static ExecutorService pool;
+    /** The results of the last {@link #runAll()}. */
+    private static List<Result> results = List.of();
+    /** How long the last {@link #runAll()} waited, in seconds. */
+    private static double totalSeconds;
+    /** Whether the results of the last {@link #runAll()} still need to be logged. */
+    private static boolean unlogged;
+
+    /**
+     * The outcome of configuring one device.
+     *
+     * @param device The name of the device.
+     * @param bus The bus the device is on.
+     * @param seconds How long its tasks took.
+     * @param failures The number of tasks that failed or didn't finish in time.
+     */
+    public record Result(String device, String bus, double seconds, int failures) {
+
+        /**
+         * Check whether any of the device's tasks failed.
+         *
+         * @return True if something failed.
+         */
+        public boolean failed() {
+            return this.failures > 0;
+        }
+    }
+
+    /** The tasks of one device, run one after another in the background. */
+    private static final class Job {
+        /** The name of the device. */
+        private final String device;
+        /** The bus the device is on. */
+        private final String bus;
+        /** The tasks on the device's bus allowed to run at the same time. */
+        private final Semaphore permits;
+        /** Completes when the last task given so far has run. */
+        private CompletableFuture<Void> tail = CompletableFuture.completedFuture(null);
+        /** The number of tasks given. */
+        private int submitted;
+        /** The number of tasks that have run. */
+        private final AtomicInteger finished = new AtomicInteger();
+        /** The number of tasks that failed. */
+        private final AtomicInteger failures = new AtomicInteger();
+        /** The total time spent running tasks, in nanoseconds. */
+        private final AtomicLong busyNanos = new AtomicLong();
+
+        /**
+         * Constructor.
+         *
+         * @param device The device being configured.
+         * @param permits The tasks on the device's bus allowed to run at the same time.
+         */
+        private Job(final Object device, final Semaphore permits) {
+            this.device = nameOf(device);
+            this.bus = busOf(device);
+            this.permits = permits;
+        }
+
+        /**
+         * Run a task after every task given before it.
+         *
+         * Only called while holding the configurator's lock.
+         *
+         * @param name The name of the task.
+         * @param task The task.
+         * @param executor The threads to run it on.
+         */
+        private void submit(final String name, final BooleanSupplier task,
+                final ExecutorService executor) {
+            this.submitted++;
+            this.tail = this.tail.thenRunAsync(() -> this.run(name, task), executor);
+        }
+
+        /**
+         * Run a single task, waiting for room on the bus first.
+         *
+         * @param name The name of the task.
+         * @param task The task.
+         */
+        private void run(final String name, final BooleanSupplier task) {
+            this.permits.acquireUninterruptibly();
+            final long start = System.nanoTime();
+            try {
+                if (!runTask(this.device, name, task)) {
+                    this.failures.incrementAndGet();
+                }
+            } finally {
+                this.busyNanos.addAndGet(System.nanoTime() - start);
+                this.finished.incrementAndGet();
+                this.permits.release();
+            }
+        }
+
+        /**
+         * Get the future for the last task given so far.
+         *
+         * @return The future.
+         */
+        private CompletableFuture<Void> tail() {
+            synchronized (DeviceConfigurator.class) {
+                return this.tail;
+            }
+        }
+
+        /**
+         * Get the outcome so far, counting unfinished tasks as failures.
+         *
+         * @return The outcome.
+         */
+        private Result result() {
+            final int unfinished;
+            synchronized (DeviceConfigurator.class) {
+                unfinished = this.submitted - this.finished.get();
+            }
+            return new Result(this.device, this.bus,
+                    this.busyNanos.get() / (double) TimeUnit.SECONDS.toNanos(1),
+                    this.failures.get() + unfinished);
+        }
+    }
+
+    private DeviceConfigurator() {
+    }
+
+    /** Run configuration tasks in the background until {@link #runAll()} is called. */
+    public static synchronized void collect() {
+        collecting = true;
+    }
+
+    /**
+     * Check whether configuration tasks are being run in the background.
+     *
+     * @return True if tasks are run in the background.
+     */
+    public static synchronized boolean isCollecting() {
+        return collecting;
+    }
+
+    /**
+     * Change how many tasks are run at the same time.
+     *
+     * This only takes effect if it's called before anything is collected.
+     *
+     * @param threadCount The number of tasks run at the same time.
+     * @param perBus The number of tasks on one bus run at the same time.
+     */
+    public static synchronized void setLimits(final int threadCount, final int perBus) {
+        threads = threadCount;
+        busLimit = perBus;
+    }
+
+    /**
+     * Change how long {@link #runAll()} waits for every device.
+     *
+     * @param seconds The time to wait, in seconds.
+     */
+    public static synchronized void setTimeout(final double seconds) {
+        timeout = seconds;
+    }
+
+    /**
+     * Configure a device, in the background if the robot is starting.
+     *
+     * @param device The device being configured.
+     * @param name The name of the task, used to report failures.
+     * @param task Configures the device, returning false if it failed.
+     */
+    public static void configure(final Object device, final String name,
+            final BooleanSupplier task) {
+        synchronized (DeviceConfigurator.class) {
+            if (collecting) {
+                final Job job = JOBS.computeIfAbsent(device, k -> new Job(k,
+                        BUSES.computeIfAbsent(busOf(k), bus -> new Semaphore(busLimit))));
+                job.submit(name, task, pool());
+                return;
+            }
+        }
+        await(device);
+        runTask(nameOf(device), name, task);
+    }
+
+    /**
+     * Run a task after a device's unfinished tasks, without waiting for them.
+     *
+     * @param device The device.
+     * @param name The name of the task, used to report failures.
+     * @param task The task, returning false if it failed.
+     * @return True if it was queued, or false if the device has nothing left to run.
+     */
+    /* package */ static boolean runAfterPending(final Object device, final String name,
+            final BooleanSupplier task) {
+        synchronized (DeviceConfigurator.class) {
+            final Job job = JOBS.get(device);
+            if (job == null || job.tail.isDone()) {
+                return false;
+            }
+            job.submit(name, task, pool());
+            return true;
+        }
+    }
+
+    /**
+     * Wait for every task given for a device so far to run.
+     *
+     * Call this before talking to a device directly, so it happens after the device's
+     * configuration.
+     *
+     * @param device The device.
+     */
+    public static void await(final Object device) {
+        final Job job;
+        synchronized (DeviceConfigurator.class) {
+            job = JOBS.get(device);
+        }
+        if (job != null) {
+            job.tail().join();
+        }
+    }
+
+    /**
+     * Wait for every task given while collecting, and stop collecting.
+     *
+     * Blocks until every device is configured, or until the timeout. Devices that aren't done by
+     * then are reported, and keep being configured in the background. Failures are reported to
+     * the Driver Station, and the time each device took is kept for {@link #logResults()}.
+     *
+     * @return The outcome for each device.
+     */
+    public static List<Result> runAll() {
+        final List<Job> jobs;
+        final long timeoutNanos;
+        synchronized (DeviceConfigurator.class) {
+            collecting = false;
+            jobs = new ArrayList<>(JOBS.values());
+            timeoutNanos = (long) (timeout * TimeUnit.SECONDS.toNanos(1));
+        }
+        if (jobs.isEmpty()) {
+            return List.of();
+        }
+        final long start = System.nanoTime();
+        final List<Result> done = new ArrayList<>(jobs.size());
+        for (final Job job : jobs) {
+            final long remaining = Math.max(0, start + timeoutNanos - System.nanoTime());
+            try {
+                job.tail().get(remaining, TimeUnit.NANOSECONDS);
+            } catch (final TimeoutException ex) {
+                DriverStation.reportError("Timed out configuring " + job.device, false);
+            } catch (final ExecutionException ex) {
+                DriverStation.reportError("Could not configure " + job.device + ": "
+                        + ex.getCause(), false);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            done.add(job.result());
+        }
+        synchronized (DeviceConfigurator.class) {
+            // Devices that are still running stay around, so later tasks wait for them
+            JOBS.values().removeIf(job -> job.tail.isDone());
+        }
+        synchronized (DeviceConfigurator.class) {
+            results = List.copyOf(done);
+            totalSeconds = secondsSince(start);
+            unlogged = true;
+            return results;
+        }
+    }
+
+    /**
+     * Log the time each device took in the last {@link #runAll()}, if it hasn't been logged yet.
+     *
+     * {@code runAll()} usually happens before the logger is running, so this is called from a
+     * periodic method instead. {@link com.chopshop166.chopshoplib.commands.CommandRobot} does
+     * this in {@code robotPeriodic}. Each device is logged under
+     * {@code DeviceConfig/<bus>/<device>}, so devices with the same ID on different buses don't
+     * overwrite each other.
+     */
+    public static void logResults() {
+        final List<Result> pending;
+        final double total;
+        synchronized (DeviceConfigurator.class) {
+            if (!unlogged) {
+                return;
+            }
+            unlogged = false;
+            pending = results;
+            total = totalSeconds;
+        }
+        for (final Result result : pending) {
+            Logger.recordOutput("DeviceConfig/" + result.bus() + "/" + result.device(),
+                    result.seconds());
+        }
+        Logger.recordOutput("DeviceConfig/TotalSeconds", total);
+    }
+
+    /**
+     * Get the outcome of the last {@link #runAll()}.
+     *
+     * @return The outcome for each device.
+     */
+    public static synchronized List<Result> getResults() {
+        return results;
+    }
+
+    /**
+     * Get the threads that run the tasks, starting them if needed.
+     *
+     * Only called while holding the configurator's lock.
+     *
+     * @return The thread pool.
+     */
+    private static ExecutorService pool() {
+        if (pool == null) {
+            final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads,
+                    KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                    runnable -> {
+                        final Thread thread =
+                                new Thread(runnable, "ChopShopLib Device Configurator");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            executor.allowCoreThreadTimeOut(true);
+            pool = executor;
+        }
+        return pool;
+    }
+
+    /**
+     * Run a single task, reporting it if it fails.
+     *
+     * @param device The name of the device.
+     * @param name The name of the task.
+     * @param task The task.
+     * @return True if it succeeded.
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private static boolean runTask(final String device, final String name,
+            final BooleanSupplier task) {
+        String problem = null;
+        try {
+            if (!task.getAsBoolean()) {
+                problem = "";
+            }
+        } catch (final RuntimeException ex) {
+            problem = " (" + ex.getMessage() + ")";
+        }
+        if (problem != null) {
+            DriverStation.reportError("Could not configure " + device + ": " + name + problem,
+                    false);
+        }
+        return problem == null;
+    }
+
+    /**
+     * Get the time since a moment.
+     *
+     * @param start The moment, from {@link System#nanoTime()}.
+     * @return The elapsed time in seconds.
+     */
+    private static double secondsSince(final long start) {
+        return (System.nanoTime() - start) / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+
+    /**
+     * Get a readable name for a device.
+     *
+     * @param device The device.
+     * @return The name.
+     */
+    private static String nameOf(final Object device) {
+        if (device instanceof SparkBase spark) {
+            return "Spark " + spark.getDeviceId();
+        } else if (device instanceof ParentDevice ctre) {
+            return ctre.getClass().getSimpleName() + " " + ctre.getDeviceID();
+        } else if (device instanceof BaseMotorController ctre) {
+            return ctre.getClass().getSimpleName() + " " + ctre.getDeviceID();
+        }
+        return device.getClass().getSimpleName();
+    }
+
+    /**
+     * Get the bus a device is on.
+     *
+     * @param device The device.
+     * @return The name of the bus.
+     */
+    private static String busOf(final Object device) {
+        if (device instanceof ParentDevice ctre) {
+            return String.valueOf(ctre.getNetwork());
+        }
+        return RIO_BUS;
+    }
+}
@@ -0,0 +1,83 @@
+package com.chopshop166.chopshoplib.can;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.hardware.ParentDevice;
+import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj.TimedRobot;
+
+/**
+ * Refreshes the status signals of every CTRE device together, once per loop.
+ *
+ * Wrappers register the signals they read, then only read the cached values. {@link #refreshAll()}
+ * does one batched read per CAN bus, so every device on a bus reports values from the same moment.
+ * {@link com.chopshop166.chopshoplib.commands.CommandRobot} calls it before running the scheduler.
+ *
+ * Wrappers call {@link #refreshIfStale()} before reading, so robots that don't use CommandRobot,
+ * or reads made before the first loop, still get values no older than one loop.
+ *
+ * This is only meant to be used from the main loop.
+ */
+public final class StatusSignalRegistry {
+
+    /** How old the signals can get before a read refreshes them, in microseconds. */
+    private static final long STALE_MICROS = (long) (TimedRobot.kDefaultPeriod * 1e6);
+    /** The registered signals on each bus. */
+    private static final Map<Object, List<BaseStatusSignal>> SIGNALS = new LinkedHashMap<>();
+    /** The signals on each bus, ready to be refreshed. */
+    private static BaseStatusSignal[][] batches = new BaseStatusSignal[0][];
+    /** When the signals were last refreshed, in microseconds, far in the past if never. */
+    private static long lastRefresh = Long.MIN_VALUE / 2;
+
+    private StatusSignalRegistry() {
+    }
+
+    /**
+     * Refresh a device's signals once per loop.
+     *
+     * @param device The device the signals belong to.
+     * @param signals The signals to refresh.
+     */
+    public static void register(final ParentDevice device, final BaseStatusSignal... signals) {
+        final List<BaseStatusSignal> bus =
+                SIGNALS.computeIfAbsent(device.getNetwork(), k -> new ArrayList<>());
+        for (final BaseStatusSignal signal : signals) {
+            if (!bus.contains(signal)) {
+                bus.add(signal);
+            }
+        }
+        batches = SIGNALS.values().stream().map(list -> list.toArray(new BaseStatusSignal[0]))
+                .toArray(BaseStatusSignal[][]::new);
+    }
+
+    /** Refresh every registered signal, with one batched read per bus. */
+    public static void refreshAll() {
+        lastRefresh = RobotController.getFPGATime();
+        for (final BaseStatusSignal[] batch : batches) {
+            BaseStatusSignal.refreshAll(batch);
+        }
+    }
+
+    /** Refresh every registered signal if nothing has refreshed them in the last loop. */
+    public static void refreshIfStale() {
+        if (RobotController.getFPGATime() - lastRefresh >= STALE_MICROS) {
+            refreshAll();
+        }
+    }
+
+    /**
+     * Get the number of registered signals.
+     *
+     * @return The number of signals across every bus.
+     */
+    public static int size() {
+        int count = 0;
+        for (final BaseStatusSignal[] batch : batches) {
+            count += batch.length;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Classes related to devices on the CAN bus.
+ */
+package com.chopshop166.chopshoplib.can;
@@ -9,9 +9,15 @@ import org.littletonrobotics.junction.LoggedRobot;
 import org.littletonrobotics.junction.Logger;
 import com.chopshop166.chopshoplib.Autonomous;
 import com.chopshop166.chopshoplib.RobotUtils;
+import com.chopshop166.chopshoplib.can.DeviceConfigManager;
+import com.chopshop166.chopshoplib.can.DeviceConfigurator;
+import com.chopshop166.chopshoplib.can.StatusSignalRegistry;
+import com.chopshop166.chopshoplib.logging.AsyncLogQueue;
 import com.chopshop166.chopshoplib.maps.RobotMapFor;
+import com.chopshop166.chopshoplib.motors.MotorHealthMonitor;
 import com.google.common.reflect.ClassPath;
 import edu.wpi.first.math.Pair;
+import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.shuffleboard.Shuffleboard;
 import edu.wpi.first.wpilibj.smartdashboard.SendableChooser;
 import edu.wpi.first.wpilibj2.command.Command;
@@ -29,6 +35,12 @@ public abstract class CommandRobot extends LoggedRobot {
     /** Currently running autonomous command. */
     private Command autoCmd;
 
+    /** Constructor. Devices created by the robot map are configured together in robotInit. */
+    protected CommandRobot() {
+        super();
+        DeviceConfigurator.collect();
+    }
+
     /** Set up the button bindings. */
     public abstract void configureButtonBindings();
 
@@ -48,12 +60,29 @@ public abstract class CommandRobot extends LoggedRobot {
 
         this.populateAutonomous();
         Shuffleboard.getTab("Shuffleboard").add("Autonomous", this.autoChooser);
+        // Configure every device created so far at once, then write any changes to flash
+        DeviceConfigurator.runAll();
+        DeviceConfigManager.persistAll();
     }
 
     @Override
     public void robotPeriodic() {
         // Do not call the super method, remove the annoying print
+        if (DeviceConfigurator.isCollecting()) {
+            // robotInit was overridden without calling it, so finish configuring devices here
+            DriverStation.reportWarning(
+                    "CommandRobot.robotInit wasn't called, finishing device configuration late",
+                    false);
+            DeviceConfigurator.runAll();
+            DeviceConfigManager.persistAll();
+        }
+        // The logger wasn't running yet when the devices were configured
+        DeviceConfigurator.logResults();
+        // Read every CTRE device at once, before any subsystem looks at them
+        StatusSignalRegistry.refreshAll();
+        MotorHealthMonitor.periodic();
         CommandScheduler.getInstance().run();
+        AsyncLogQueue.flush();
     }
 
     @Override
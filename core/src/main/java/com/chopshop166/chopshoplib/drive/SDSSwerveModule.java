@@ -1,10 +1,11 @@
 package com.chopshop166.chopshoplib.drive;
 
+import java.util.List;
+import com.chopshop166.chopshoplib.can.DeviceConfigManager;
 import com.chopshop166.chopshoplib.motors.CSSpark;
 import com.chopshop166.chopshoplib.motors.PIDControlType;
 import com.chopshop166.chopshoplib.sensors.IAbsolutePosition;
 import com.chopshop166.chopshoplib.states.PIDValues;
-import com.revrobotics.PersistMode;
 import com.revrobotics.ResetMode;
 import com.revrobotics.spark.ClosedLoopSlot;
 import com.revrobotics.spark.SparkBase;
@@ -266,7 +267,9 @@ public class SDSSwerveModule implements SwerveModule {
 
         motor.setPidSlot(0);
 
-        spark.configure(config, ResetMode.kResetSafeParameters, PersistMode.kPersistParameters);
+        DeviceConfigManager.configureSpark(spark, "drive",
+                List.of(conf.getConversion(), conf.drivePIDValues), config,
+                ResetMode.kResetSafeParameters);
 
         // Return the original object so this can be chained
         return motor;
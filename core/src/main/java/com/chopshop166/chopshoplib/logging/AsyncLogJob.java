@@ -0,0 +1,287 @@
+package com.chopshop166.chopshoplib.logging;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.LockSupport;
+import org.littletonrobotics.junction.LogTable;
+import org.littletonrobotics.junction.LogTable.LogValue;
+import org.littletonrobotics.junction.Logger;
+import org.littletonrobotics.junction.inputs.LoggableInputs;
+import edu.wpi.first.util.struct.Struct;
+import edu.wpi.first.wpilibj.DriverStation;
+
+/**
+ * A data object that gets serialized on the background thread.
+ *
+ * The live object is copied into a back buffer on the main loop, the back buffer is written to a
+ * staging table by the worker, and the staging table is put into the log during the flush.
+ *
+ * The worker also compares the staging table against what was last put into the log, so the flush
+ * only copies the entries that changed. Struct schemas are registered by putting the first value
+ * of each struct type through {@link LogTable#put(String, Struct, Object)}, and data objects that
+ * need any other kind of schema are logged directly instead.
+ *
+ * Every cycle is logged. If the worker isn't done by the flush deadline, a copy of the back buffer
+ * is logged on the main loop instead, and the next snapshot puts every entry into the log again.
+ */
+/* package */ final class AsyncLogJob implements LoggableInputs {
+
+    /** The prefix of the schema entries. */
+    private static final String SCHEMA_PREFIX = "/.schema/";
+    /** The prefix of the struct schema entries. */
+    private static final String STRUCT_SCHEMA_PREFIX = SCHEMA_PREFIX + "struct:";
+
+    /** The live data object. */
+    private final DataWrapper front;
+    /** The copy that the worker serializes. */
+    private final DataWrapper back;
+    /** Copies the live object into the back buffer. */
+    private final SnapshotCopier copier;
+    /** The table the worker serializes into. */
+    private final StagingTable staging = new StagingTable();
+    /** The key to log under. */
+    private String name;
+    /** Whether the worker has finished the current snapshot. */
+    private volatile boolean done = true;
+    /** Whether a snapshot was submitted and not flushed yet. */
+    private boolean pending;
+    /** Whether something was logged without this job, so every entry has to be put again. */
+    private volatile boolean resync;
+    /** Whether the data object needs a schema this job can't register. */
+    private volatile boolean unsupported;
+    /** The thread waiting for the worker, if any. */
+    private volatile Thread waiter;
+    /** The values last put into the log, by their key in the staging table. Worker only. */
+    private final Map<String, LogValue> published = new HashMap<>();
+    /** The staging entries that differ from the published values. */
+    private final List<Map.Entry<String, LogValue>> changed = new ArrayList<>();
+    /** Whether a slow worker has been reported. */
+    private boolean warned;
+
+    /** A staging table that remembers the first value of each struct type put into it. */
+    private static final class StagingTable extends LogTable {
+        /** The schema keys of every struct type seen so far, including nested ones. */
+        private final Set<String> schemas = new HashSet<>();
+        /** The first value of each new struct type, to register its schema with. */
+        private final List<Runnable> newStructs = new ArrayList<>();
+        /** The table the new struct values get put into, set during the flush. */
+        private LogTable target;
+
+        /** Constructor. */
+        /* package */ StagingTable() {
+            super(0);
+        }
+
+        @Override
+        public <T> void put(final String key, final Struct<T> struct, final T value) {
+            super.put(key, struct, value);
+            if (this.addSchemas(struct)) {
+                this.newStructs.add(() -> this.target.put(key, struct, value));
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> void put(final String key, final Struct<T> struct, final T... value) {
+            super.put(key, struct, value);
+            if (this.addSchemas(struct)) {
+                this.newStructs.add(() -> this.target.put(key, struct, value));
+            }
+        }
+
+        /**
+         * Remember the schema of a struct and every struct nested in it.
+         *
+         * @param struct The struct.
+         * @return True if the struct's own schema wasn't seen before.
+         */
+        private boolean addSchemas(final Struct<?> struct) {
+            if (!this.schemas.add(SCHEMA_PREFIX + struct.getTypeString())) {
+                return false;
+            }
+            for (final Struct<?> nested : struct.getNested()) {
+                this.addSchemas(nested);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param front The live data object.
+     * @param back The back buffer.
+     * @param copier The copier for the data class.
+     */
+    private AsyncLogJob(final DataWrapper front, final DataWrapper back,
+            final SnapshotCopier copier) {
+        this.front = front;
+        this.back = back;
+        this.copier = copier;
+    }
+
+    /**
+     * Set up asynchronous logging for a data object.
+     *
+     * @param data The live data object.
+     * @return The job, or null if the object can't be copied.
+     */
+    public static AsyncLogJob create(final LoggableInputs data) {
+        if (!(data instanceof DataWrapper)) {
+            return null;
+        }
+        final SnapshotCopier copier = SnapshotCopier.of(data.getClass());
+        if (!copier.isSupported()) {
+            return null;
+        }
+        try {
+            return new AsyncLogJob((DataWrapper) data, (DataWrapper) copier.newInstance(),
+                    copier);
+        } catch (final ReflectiveOperationException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Copy the live object and queue it to be serialized.
+     *
+     * When this returns false the job is bypassed for this cycle, so the next snapshot puts every
+     * entry into the log again.
+     *
+     * @param key The key to log under.
+     * @return False if the snapshot couldn't be taken, and the caller should log directly.
+     */
+    @SuppressWarnings("PMD.AvoidCatchingThrowable")
+    public boolean submit(final String key) {
+        if (this.pending) {
+            // Nothing flushed the last snapshot, so its changes never made it into the log
+            this.pending = false;
+            this.resync = true;
+        }
+        if (!this.done || this.unsupported) {
+            // The worker is still reading the back buffer, or can't handle this object
+            this.resync = true;
+            return false;
+        }
+        try {
+            this.copier.copy(this.front, this.back);
+        } catch (final Throwable ex) {
+            this.resync = true;
+            return false;
+        }
+        this.name = key;
+        this.pending = true;
+        this.done = false;
+        AsyncLogQueue.submit(this);
+        return true;
+    }
+
+    /** Serialize the back buffer into the staging table, and find what changed. */
+    @SuppressWarnings("PMD.AvoidCatchingThrowable")
+    public void serialize() {
+        try {
+            if (this.resync) {
+                this.resync = false;
+                this.published.clear();
+            }
+            this.staging.newStructs.clear();
+            this.back.toLog(this.staging);
+            this.changed.clear();
+            for (final Map.Entry<String, LogValue> entry : this.staging.getAll(false)
+                    .entrySet()) {
+                final String key = entry.getKey();
+                final LogValue value = entry.getValue();
+                if (key.startsWith(SCHEMA_PREFIX)) {
+                    // Struct schemas are registered by the first value of each type
+                    if (!key.startsWith(STRUCT_SCHEMA_PREFIX)
+                            || !this.staging.schemas.contains(key)) {
+                        this.unsupported = true;
+                    }
+                } else if (!value.equals(this.published.get(key))) {
+                    this.changed.add(Map.entry(key, value));
+                    this.published.put(key, value);
+                }
+            }
+        } catch (final Throwable ex) {
+            // Silently fail, like a single field would
+            this.changed.clear();
+            this.unsupported = true;
+        } finally {
+            this.done = true;
+            final Thread thread = this.waiter;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+    }
+
+    /**
+     * Wait for the worker to finish, then put the changed entries into the log.
+     *
+     * If the worker doesn't finish by the deadline, a copy of the back buffer is logged directly
+     * instead, so the cycle is never lost.
+     *
+     * @param deadline The {@link System#nanoTime()} to stop waiting at.
+     */
+    public void awaitAndLog(final long deadline) {
+        if (!this.done) {
+            this.waiter = Thread.currentThread();
+            long remaining = deadline - System.nanoTime();
+            while (!this.done && remaining > 0) {
+                LockSupport.parkNanos(this, remaining);
+                remaining = deadline - System.nanoTime();
+            }
+            this.waiter = null;
+        }
+        this.pending = false;
+        if (!this.done) {
+            if (!this.warned) {
+                DriverStation.reportWarning("Logging " + this.name
+                        + " took too long, logging it on the main loop", false);
+                this.warned = true;
+            }
+            this.logDirectly();
+        } else if (this.unsupported) {
+            this.logDirectly();
+        } else {
+            Logger.processInputs(this.name, this);
+        }
+    }
+
+    /** Log a copy of the back buffer on the main loop, without the worker's results. */
+    @SuppressWarnings("PMD.AvoidCatchingThrowable")
+    private void logDirectly() {
+        this.resync = true;
+        try {
+            // The worker might still be logging the back buffer, so log a fresh copy of it
+            final DataWrapper copy = (DataWrapper) this.copier.newInstance();
+            this.copier.copy(this.back, copy);
+            Logger.processInputs(this.name, copy);
+        } catch (final Throwable ex) {
+            Logger.processInputs(this.name, this.front);
+        }
+    }
+
+    @Override
+    public void toLog(final LogTable table) {
+        for (final Map.Entry<String, LogValue> entry : this.changed) {
+            table.put(entry.getKey().substring(1), entry.getValue());
+        }
+        this.changed.clear();
+        this.staging.target = table;
+        for (final Runnable put : this.staging.newStructs) {
+            put.run();
+        }
+        this.staging.newStructs.clear();
+        this.staging.target = null;
+    }
+
+    @Override
+    public void fromLog(final LogTable table) {
+        // Replay always goes through the live data object
+    }
+}
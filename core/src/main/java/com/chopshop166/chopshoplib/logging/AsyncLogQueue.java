@@ -0,0 +1,101 @@
+package com.chopshop166.chopshoplib.logging;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Background serializer for asynchronously logged data objects.
+ *
+ * Snapshots are handed from the main loop to a single worker thread through a lock-free ring.
+ * {@link #flush()} waits for every snapshot submitted this cycle and puts the results into the
+ * log, so each value is still logged in the cycle it was read in. {@link
+ * com.chopshop166.chopshoplib.commands.CommandRobot} calls it after every scheduler run.
+ *
+ * The flush waits at most 5ms in total, however many data objects there are. Anything the worker
+ * hasn't finished by then is logged on the main loop, which costs as much as logging it directly.
+ */
+public final class AsyncLogQueue {
+
+    /** The number of snapshots that can be waiting at once. Must be a power of two. */
+    private static final int CAPACITY = 64;
+    /** The longest the flush waits for the worker, across every snapshot, in nanoseconds. */
+    private static final long MAX_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    /** Snapshots waiting to be serialized. */
+    private static final AsyncLogJob[] RING = new AsyncLogJob[CAPACITY];
+    /** The next index the worker reads from. */
+    private static final AtomicLong HEAD = new AtomicLong();
+    /** The next index the main loop writes to. */
+    private static final AtomicLong TAIL = new AtomicLong();
+    /** Snapshots submitted since the last flush, in order. Only used from the main loop. */
+    private static final List<AsyncLogJob> PENDING = new ArrayList<>();
+    /** The serializer thread. */
+    private static Thread worker;
+
+    private AsyncLogQueue() {
+    }
+
+    /**
+     * Put every snapshot from this cycle into the log.
+     *
+     * This has to be called from the main loop, once per cycle.
+     */
+    public static void flush() {
+        final long deadline = System.nanoTime() + MAX_WAIT_NANOS;
+        for (final AsyncLogJob job : PENDING) {
+            job.awaitAndLog(deadline);
+        }
+        PENDING.clear();
+    }
+
+    /**
+     * Queue a snapshot to be serialized.
+     *
+     * If the ring is full, the snapshot is serialized right away instead.
+     *
+     * @param job The snapshot.
+     */
+    /* package */ static void submit(final AsyncLogJob job) {
+        PENDING.add(job);
+        final long tail = TAIL.get();
+        if (tail - HEAD.get() >= CAPACITY) {
+            job.serialize();
+            return;
+        }
+        RING[(int) (tail & (CAPACITY - 1))] = job;
+        TAIL.lazySet(tail + 1);
+        LockSupport.unpark(worker());
+    }
+
+    /**
+     * Get the worker thread, starting it if needed.
+     *
+     * @return The worker thread.
+     */
+    private static Thread worker() {
+        if (worker == null) {
+            worker = new Thread(AsyncLogQueue::drain, "ChopShopLib Log Serializer");
+            worker.setDaemon(true);
+            worker.start();
+        }
+        return worker;
+    }
+
+    /** Serialize snapshots as they arrive. */
+    private static void drain() {
+        while (true) {
+            final long head = HEAD.get();
+            if (head == TAIL.get()) {
+                LockSupport.park();
+                continue;
+            }
+            final int index = (int) (head & (CAPACITY - 1));
+            final AsyncLogJob job = RING[index];
+            RING[index] = null;
+            HEAD.lazySet(head + 1);
+            job.serialize();
+        }
+    }
+}
@@ -0,0 +1,501 @@
+package com.chopshop166.chopshoplib.logging;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import edu.wpi.first.util.datalog.BooleanArrayLogEntry;
+import edu.wpi.first.util.datalog.BooleanLogEntry;
+import edu.wpi.first.util.datalog.DataLog;
+import edu.wpi.first.util.datalog.DataLogWriter;
+import edu.wpi.first.util.datalog.DoubleArrayLogEntry;
+import edu.wpi.first.util.datalog.DoubleLogEntry;
+import edu.wpi.first.util.datalog.IntegerArrayLogEntry;
+import edu.wpi.first.util.datalog.IntegerLogEntry;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Filesystem;
+import edu.wpi.first.wpilibj.RobotController;
+
+/**
+ * Keeps the last few seconds of data objects at full rate, and writes them out when something goes
+ * wrong.
+ *
+ * Each registered data object is recorded into a fixed-size frame of an off-heap ring buffer every
+ * cycle, regardless of {@link LogEvery} or delta logging. Only primitive fields and primitive
+ * arrays are recorded, including those of nested data objects. The ring is sized on the first
+ * cycle, and arrays are cut off at the length they had then. An array that was null or empty is
+ * sized the first time it has values, which drops anything recorded before that. When a trigger
+ * becomes true, the ring is copied and written to a WPILOG file on a background thread.
+ *
+ * Typical triggers are {@code motor::errored}, {@link RobotController#isBrownedOut} or a loop
+ * overrun check.
+ */
+public class BlackBoxRecorder {
+
+    /** The number of frames kept by default, 10 seconds at 50Hz. */
+    public static final int DEFAULT_FRAMES = 500;
+    /** The size of the timestamp at the start of each frame. */
+    private static final int TIMESTAMP_BYTES = Long.BYTES;
+
+    /** How a single value gets stored. */
+    private enum Kind {
+        /** A boolean, as one byte. */
+        BOOLEAN(1),
+        /** An int. */
+        INT(Integer.BYTES),
+        /** A long. */
+        LONG(Long.BYTES),
+        /** A double. */
+        DOUBLE(Double.BYTES),
+        /** A boolean array, as one byte each. */
+        BOOLEAN_ARRAY(1),
+        /** An int array. */
+        INT_ARRAY(Integer.BYTES),
+        /** A long array. */
+        LONG_ARRAY(Long.BYTES),
+        /** A double array. */
+        DOUBLE_ARRAY(Double.BYTES);
+
+        /** The size of a single element. */
+        private final int size;
+
+        /**
+         * Constructor.
+         *
+         * @param size The size of a single element.
+         */
+        Kind(final int size) {
+            this.size = size;
+        }
+    }
+
+    /**
+     * A single recorded value.
+     *
+     * @param name The full name it gets written as.
+     * @param kind How it's stored.
+     * @param config The field, reachable from the registered object.
+     * @param root The registered object.
+     * @param offset The position within each frame.
+     * @param capacity The number of array elements kept, or 0 for a single value or an array that
+     *     hasn't been sized.
+     */
+    private record Channel(String name, Kind kind, LogConfig config, Object root, int offset,
+            int capacity) {
+    }
+
+    /** The directory to write dumps into. */
+    private final String directory;
+    /** The number of frames in the ring. */
+    private final int frames;
+    /** The recorded values. */
+    private List<Channel> channels = new ArrayList<>();
+    /** The conditions that start a dump. */
+    private final List<BooleanSupplier> triggers = new ArrayList<>();
+    /** The names of the triggers. */
+    private final List<String> triggerNames = new ArrayList<>();
+    /** Whether each trigger was true last cycle. */
+    private boolean[] triggerStates = new boolean[0];
+    /** Whether a dump is being written. */
+    private final AtomicBoolean dumping = new AtomicBoolean();
+    /** The size of a single frame in bytes. */
+    private int frameSize = TIMESTAMP_BYTES;
+    /** The ring of frames. */
+    private ByteBuffer ring;
+    /** The copy of the ring that gets written out. */
+    private ByteBuffer snapshot;
+    /** The total number of frames recorded. */
+    private long recorded;
+    /** Whether the ring has to be sized before the next frame. */
+    private boolean resize = true;
+
+    /**
+     * Constructor, keeping {@link #DEFAULT_FRAMES} frames and dumping into the operating
+     * directory.
+     *
+     * The operating directory is on the roboRIO's flash, so dumps survive a reboot.
+     */
+    public BlackBoxRecorder() {
+        this(DEFAULT_FRAMES, Filesystem.getOperatingDirectory().getPath());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param frames The number of cycles to keep.
+     * @param directory The directory to write dumps into.
+     */
+    public BlackBoxRecorder(final int frames, final String directory) {
+        this.frames = frames;
+        this.directory = directory;
+    }
+
+    /**
+     * Record a data object every cycle.
+     *
+     * This clears anything recorded so far, so register everything before the robot starts.
+     *
+     * @param key The key to write its values under.
+     * @param data The data object.
+     * @return This object, for chaining.
+     */
+    public BlackBoxRecorder register(final String key, final DataWrapper data) {
+        final Set<Class<?>> path = new HashSet<>();
+        path.add(data.getClass());
+        this.addChannels(key, data, data.getClass(), null, path);
+        this.resize = true;
+        return this;
+    }
+
+    /**
+     * Write out the recording when a condition becomes true.
+     *
+     * @param name The name of the condition, used in the file name.
+     * @param trigger The condition.
+     * @return This object, for chaining.
+     */
+    public BlackBoxRecorder addTrigger(final String name, final BooleanSupplier trigger) {
+        this.triggers.add(trigger);
+        this.triggerNames.add(name);
+        this.triggerStates = new boolean[this.triggers.size()];
+        return this;
+    }
+
+    /**
+     * Get the number of bytes recorded each cycle.
+     *
+     * This is only known once the ring has been sized on the first cycle.
+     *
+     * @return The frame size.
+     */
+    public int getFrameSize() {
+        return this.frameSize;
+    }
+
+    /** Record the registered data objects, and check the triggers. */
+    public void record() {
+        this.record(RobotController.getFPGATime());
+    }
+
+    /**
+     * Record the registered data objects, and check the triggers.
+     *
+     * @param timestampMicros The time of this cycle in microseconds.
+     */
+    public void record(final long timestampMicros) {
+        if (this.resize) {
+            this.allocate();
+        }
+        final int base = (int) (this.recorded % this.frames) * this.frameSize;
+        this.ring.putLong(base, timestampMicros);
+        for (final Channel channel : this.channels) {
+            this.recordChannel(channel, base + channel.offset());
+        }
+        this.recorded++;
+        for (int i = 0; i < this.triggerStates.length; i++) {
+            final boolean state = this.triggers.get(i).getAsBoolean();
+            if (state && !this.triggerStates[i]) {
+                this.dump(this.triggerNames.get(i));
+            }
+            this.triggerStates[i] = state;
+        }
+    }
+
+    /**
+     * Write out the recording now.
+     *
+     * The ring is copied on the calling thread and written on a background thread. Nothing happens
+     * if the last dump is still being written.
+     *
+     * @param reason Why the dump was made, used in the file name.
+     * @return True if a dump was started.
+     */
+    public boolean dump(final String reason) {
+        if (this.recorded == 0 || !this.dumping.compareAndSet(false, true)) {
+            return false;
+        }
+        final int count = (int) Math.min(this.recorded, this.frames);
+        final int first = (int) ((this.recorded - count) % this.frames);
+        // The ring can be resized while the dump is written, so it keeps its own layout
+        final ByteBuffer data = this.snapshot;
+        data.put(0, this.ring, 0, this.ring.capacity());
+        final List<Channel> layout = List.copyOf(this.channels);
+        final int size = this.frameSize;
+        final File file = new File(this.directory, "blackbox_" + reason.replaceAll("\\W", "_")
+                + "_" + System.currentTimeMillis() + ".wpilog");
+        final Thread writer = new Thread(() -> {
+            try {
+                this.write(file, data, layout, size, first, count);
+            } catch (final IOException ex) {
+                DriverStation.reportError("Could not write black box: " + ex.getMessage(), false);
+            } finally {
+                this.dumping.set(false);
+            }
+        }, "BlackBoxDump");
+        writer.setDaemon(true);
+        writer.start();
+        return true;
+    }
+
+    /**
+     * Check whether a dump is being written.
+     *
+     * @return True until the last dump has been closed.
+     */
+    public boolean isDumping() {
+        return this.dumping.get();
+    }
+
+    /**
+     * Size the ring for the current length of every array, dropping anything recorded.
+     *
+     * Arrays that were already sized keep their capacity.
+     */
+    @SuppressWarnings("PMD.AvoidCatchingThrowable")
+    private void allocate() {
+        final List<Channel> sized = new ArrayList<>(this.channels.size());
+        int offset = TIMESTAMP_BYTES;
+        for (final Channel channel : this.channels) {
+            int capacity = channel.capacity();
+            if (capacity == 0 && channel.config().field().getType().isArray()) {
+                try {
+                    final Object array = channel.config().get(channel.root());
+                    capacity = array == null ? 0 : Array.getLength(array);
+                } catch (final Throwable ex) {
+                    capacity = 0;
+                }
+            }
+            sized.add(new Channel(channel.name(), channel.kind(), channel.config(),
+                    channel.root(), offset, capacity));
+            offset += channel.config().field().getType().isArray()
+                    ? Integer.BYTES + capacity * channel.kind().size
+                    : channel.kind().size;
+        }
+        this.channels = sized;
+        this.frameSize = offset;
+        this.ring = ByteBuffer.allocateDirect(this.frames * this.frameSize);
+        this.snapshot = ByteBuffer.allocateDirect(this.ring.capacity());
+        this.recorded = 0;
+        this.resize = false;
+    }
+
+    /**
+     * Add the recordable fields of a class.
+     *
+     * @param key The key of the object holding the fields.
+     * @param root The registered object.
+     * @param type The class to add the fields of.
+     * @param parent The field holding an object of that class, or null for the top level.
+     * @param path The classes currently being added, to avoid cycles.
+     */
+    private void addChannels(final String key, final Object root, final Class<?> type,
+            final LogConfig parent, final Set<Class<?>> path) {
+        for (final Field field : type.getFields()) {
+            if (Modifier.isStatic(field.getModifiers()) || field.isAnnotationPresent(NoLog.class)) {
+                continue;
+            }
+            LogConfig config = LogConfig.fromField(field);
+            if (config == null) {
+                continue;
+            }
+            if (parent != null) {
+                config = config.under(parent);
+            }
+            final Class<?> fieldType = field.getType();
+            if (DataWrapper.class.isAssignableFrom(fieldType) && path.add(fieldType)) {
+                this.addChannels(key, root, fieldType, config, path);
+                path.remove(fieldType);
+                continue;
+            }
+            final Kind kind = kindOf(fieldType);
+            if (kind == null) {
+                continue;
+            }
+            // The position and array capacity are worked out when the ring is sized
+            this.channels.add(new Channel(key + "/" + config.name(), kind, config, root, 0, 0));
+        }
+    }
+
+    /**
+     * Work out how to store a field type.
+     *
+     * @param type The field type.
+     * @return The kind, or null if it isn't recorded.
+     */
+    private static Kind kindOf(final Class<?> type) {
+        if (type == boolean.class) {
+            return Kind.BOOLEAN;
+        } else if (type == int.class) {
+            return Kind.INT;
+        } else if (type == long.class) {
+            return Kind.LONG;
+        } else if (type == double.class) {
+            return Kind.DOUBLE;
+        } else if (type == boolean[].class) {
+            return Kind.BOOLEAN_ARRAY;
+        } else if (type == int[].class) {
+            return Kind.INT_ARRAY;
+        } else if (type == long[].class) {
+            return Kind.LONG_ARRAY;
+        } else if (type == double[].class) {
+            return Kind.DOUBLE_ARRAY;
+        }
+        return null;
+    }
+
+    /**
+     * Copy a single value into the ring.
+     *
+     * @param channel The value to copy.
+     * @param position The position in the ring.
+     */
+    @SuppressWarnings("PMD.AvoidCatchingThrowable")
+    private void recordChannel(final Channel channel, final int position) {
+        final LogConfig config = channel.config();
+        final Object root = channel.root();
+        try {
+            switch (channel.kind()) {
+                case BOOLEAN -> this.ring.put(position, (byte) (config.getBoolean(root) ? 1 : 0));
+                case INT -> this.ring.putInt(position, config.getInt(root));
+                case LONG -> this.ring.putLong(position, config.getLong(root));
+                case DOUBLE -> this.ring.putDouble(position, config.getDouble(root));
+                default -> this.recordArray(channel, config.get(root), position);
+            }
+        } catch (final Throwable ex) {
+            // A nested object is missing, so record an empty array or keep the old value
+            if (channel.capacity() > 0) {
+                this.ring.putInt(position, 0);
+            }
+        }
+    }
+
+    /**
+     * Copy an array into the ring.
+     *
+     * @param channel The value to copy.
+     * @param array The array, or null.
+     * @param position The position in the ring.
+     */
+    private void recordArray(final Channel channel, final Object array, final int position) {
+        final int data = position + Integer.BYTES;
+        if (channel.capacity() == 0 && array != null && Array.getLength(array) > 0) {
+            // The array has values for the first time, so size it on the next frame
+            this.resize = true;
+        }
+        int length = 0;
+        if (array instanceof double[] values) {
+            length = Math.min(values.length, channel.capacity());
+            for (int i = 0; i < length; i++) {
+                this.ring.putDouble(data + i * Double.BYTES, values[i]);
+            }
+        } else if (array instanceof int[] values) {
+            length = Math.min(values.length, channel.capacity());
+            for (int i = 0; i < length; i++) {
+                this.ring.putInt(data + i * Integer.BYTES, values[i]);
+            }
+        } else if (array instanceof long[] values) {
+            length = Math.min(values.length, channel.capacity());
+            for (int i = 0; i < length; i++) {
+                this.ring.putLong(data + i * Long.BYTES, values[i]);
+            }
+        } else if (array instanceof boolean[] values) {
+            length = Math.min(values.length, channel.capacity());
+            for (int i = 0; i < length; i++) {
+                this.ring.put(data + i, (byte) (values[i] ? 1 : 0));
+            }
+        }
+        this.ring.putInt(position, length);
+    }
+
+    /**
+     * Write the copied ring to a file.
+     *
+     * @param file The file to write.
+     * @param data The copied ring.
+     * @param layout The channels in the copied ring.
+     * @param size The size of a single frame in the copied ring.
+     * @param first The index of the oldest frame.
+     * @param count The number of frames.
+     * @throws IOException If the file can't be written.
+     */
+    private void write(final File file, final ByteBuffer data, final List<Channel> layout,
+            final int size, final int first, final int count) throws IOException {
+        final DataLog log = new DataLogWriter(file.getPath());
+        try {
+            final Object[] entries = new Object[layout.size()];
+            for (int c = 0; c < entries.length; c++) {
+                final Channel channel = layout.get(c);
+                entries[c] = switch (channel.kind()) {
+                    case BOOLEAN -> new BooleanLogEntry(log, channel.name());
+                    case INT, LONG -> new IntegerLogEntry(log, channel.name());
+                    case DOUBLE -> new DoubleLogEntry(log, channel.name());
+                    case BOOLEAN_ARRAY -> new BooleanArrayLogEntry(log, channel.name());
+                    case INT_ARRAY, LONG_ARRAY -> new IntegerArrayLogEntry(log, channel.name());
+                    case DOUBLE_ARRAY -> new DoubleArrayLogEntry(log, channel.name());
+                };
+            }
+            for (int f = 0; f < count; f++) {
+                final int base = (first + f) % this.frames * size;
+                final long timestamp = data.getLong(base);
+                for (int c = 0; c < entries.length; c++) {
+                    final Channel channel = layout.get(c);
+                    writeChannel(entries[c], channel, data, base + channel.offset(), timestamp);
+                }
+            }
+        } finally {
+            log.close();
+        }
+    }
+
+    /**
+     * Write a single recorded value.
+     *
+     * @param entry The log entry for the value.
+     * @param channel The value.
+     * @param data The copied ring.
+     * @param position The position in the copied ring.
+     * @param timestamp The time it was recorded in microseconds.
+     */
+    private static void writeChannel(final Object entry, final Channel channel,
+            final ByteBuffer data, final int position, final long timestamp) {
+        final int length = channel.capacity() == 0 ? 0 : data.getInt(position);
+        final int start = position + Integer.BYTES;
+        switch (channel.kind()) {
+            case BOOLEAN -> ((BooleanLogEntry) entry).append(data.get(position) != 0, timestamp);
+            case INT -> ((IntegerLogEntry) entry).append(data.getInt(position), timestamp);
+            case LONG -> ((IntegerLogEntry) entry).append(data.getLong(position), timestamp);
+            case DOUBLE -> ((DoubleLogEntry) entry).append(data.getDouble(position), timestamp);
+            case BOOLEAN_ARRAY -> {
+                final boolean[] values = new boolean[length];
+                for (int i = 0; i < length; i++) {
+                    values[i] = data.get(start + i) != 0;
+                }
+                ((BooleanArrayLogEntry) entry).append(values, timestamp);
+            }
+            case INT_ARRAY, LONG_ARRAY -> {
+                final long[] values = new long[length];
+                for (int i = 0; i < length; i++) {
+                    values[i] = channel.kind() == Kind.INT_ARRAY
+                            ? data.getInt(start + i * Integer.BYTES)
+                            : data.getLong(start + i * Long.BYTES);
+                }
+                ((IntegerArrayLogEntry) entry).append(values, timestamp);
+            }
+            case DOUBLE_ARRAY -> {
+                final double[] values = new double[length];
+                for (int i = 0; i < length; i++) {
+                    values[i] = data.getDouble(start + i * Double.BYTES);
+                }
+                ((DoubleArrayLogEntry) entry).append(values, timestamp);
+            }
+        }
+    }
+}
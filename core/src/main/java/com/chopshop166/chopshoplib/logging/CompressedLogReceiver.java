@@ -0,0 +1,216 @@
+package com.chopshop166.chopshoplib.logging;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+import org.littletonrobotics.junction.LogDataReceiver;
+import org.littletonrobotics.junction.LogTable;
+import org.littletonrobotics.junction.LogTable.LogValue;
+import edu.wpi.first.util.datalog.DataLog;
+import edu.wpi.first.util.datalog.DataLogWriter;
+import edu.wpi.first.wpilibj.DriverStation;
+
+/**
+ * Writes the log as a gzip-compressed WPILOG file.
+ *
+ * Tables are handed to a background thread through a bounded queue, which only writes the values
+ * that changed since the last table and compresses them as they're written. If the writer falls
+ * behind, new tables are dropped and counted instead of blocking. Decompress the file (for example
+ * with {@code gunzip}) before opening it in AdvantageScope. The decompressed file has the same
+ * header and timestamp entry as AdvantageKit's own logs, so it can also be replayed.
+ *
+ * Add it before starting the logger, e.g.
+ * {@code Logger.addDataReceiver(new CompressedLogReceiver("/U/logs/practice.wpilog.gz"))} in
+ * {@link com.chopshop166.chopshoplib.commands.CommandRobot#robotInit()}.
+ */
+public class CompressedLogReceiver implements LogDataReceiver {
+
+    /** The number of tables that can be waiting by default. */
+    public static final int DEFAULT_CAPACITY = 256;
+    /** The size of the compression buffer. */
+    private static final int BUFFER_SIZE = 1 << 16;
+    /** The number of tables between each push of the log into the compressor. */
+    private static final int FLUSH_INTERVAL = 50;
+    /** The header that AdvantageKit expects in a log it replays. */
+    private static final String EXTRA_HEADER = "AdvantageKit";
+    /** The key of the entry holding each table's timestamp. */
+    private static final String TIMESTAMP_KEY = "/Timestamp";
+    /** The metadata of entries written for AdvantageKit. */
+    private static final String METADATA = "{\"source\":\"AdvantageKit\"}";
+
+    /** The file to write. */
+    private final String path;
+    /** Tables waiting to be written. */
+    private final BlockingQueue<LogTable> queue;
+    /** The number of tables that were dropped because the queue was full. */
+    private final AtomicLong dropped = new AtomicLong();
+    /** The entry for each key, once it's been started. */
+    private final Map<String, Integer> entries = new HashMap<>();
+    /** The last value written for each key. */
+    private final Map<String, LogValue> lastValues = new HashMap<>();
+    /** The log being written, or null if it isn't open. */
+    private DataLog log;
+    /** The timestamp entry, or null before the first table. */
+    private Integer timestampEntry;
+    /** The writer thread. */
+    private Thread writer;
+    /** Whether the writer should keep running. */
+    private volatile boolean running;
+
+    /**
+     * Constructor.
+     *
+     * @param path The file to write.
+     */
+    public CompressedLogReceiver(final String path) {
+        this(path, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param path The file to write.
+     * @param capacity The number of tables that can be waiting before new ones are dropped,
+     *     including any put before the receiver is started.
+     */
+    public CompressedLogReceiver(final String path, final int capacity) {
+        this.path = path;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Get the number of tables that were dropped because the writer fell behind.
+     *
+     * @return The number of dropped tables.
+     */
+    public long getDroppedFrames() {
+        return this.dropped.get();
+    }
+
+    @Override
+    public void start() {
+        try {
+            this.log = new DataLogWriter(new GZIPOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(this.path), BUFFER_SIZE),
+                    BUFFER_SIZE), EXTRA_HEADER);
+        } catch (final IOException ex) {
+            DriverStation.reportError("Could not open " + this.path + ": " + ex.getMessage(),
+                    false);
+            return;
+        }
+        this.running = true;
+        this.writer = new Thread(this::drain, "ChopShopLib Compressed Log Writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public void putTable(final LogTable table) {
+        if (!this.queue.offer(table)) {
+            this.dropped.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void end() {
+        if (this.writer == null) {
+            return;
+        }
+        this.running = false;
+        try {
+            this.writer.join();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        this.writer = null;
+    }
+
+    /** Write tables as they arrive, until stopped. */
+    private void drain() {
+        int sinceFlush = 0;
+        try {
+            while (this.running || !this.queue.isEmpty()) {
+                final LogTable table = this.queue.poll(100, TimeUnit.MILLISECONDS);
+                if (table == null) {
+                    continue;
+                }
+                this.write(table);
+                if (++sinceFlush >= FLUSH_INTERVAL) {
+                    this.log.flush();
+                    sinceFlush = 0;
+                }
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            this.log.close();
+            this.log = null;
+        }
+    }
+
+    /**
+     * Write the values of a table that changed.
+     *
+     * @param table The table.
+     */
+    private void write(final LogTable table) {
+        final long timestamp = table.getTimestamp();
+        if (this.timestampEntry == null) {
+            this.timestampEntry = this.log.start(TIMESTAMP_KEY, "int64", METADATA, timestamp);
+        }
+        this.log.appendInteger(this.timestampEntry, timestamp, timestamp);
+        for (final Map.Entry<String, LogValue> item : table.getAll(false).entrySet()) {
+            final String key = item.getKey();
+            final LogValue value = item.getValue();
+            if (value.equals(this.lastValues.get(key))) {
+                continue;
+            }
+            this.lastValues.put(key, value);
+            Integer entry = this.entries.get(key);
+            if (entry == null) {
+                final String metadata = value.unitStr == null ? METADATA
+                        : "{\"source\":\"AdvantageKit\",\"unit\":\"" + value.unitStr + "\"}";
+                entry = this.log.start(key, value.getWPILOGType(), metadata, timestamp);
+                this.entries.put(key, entry);
+            }
+            this.append(entry, value, timestamp);
+        }
+    }
+
+    /**
+     * Write a single value.
+     *
+     * @param entry The entry to write to.
+     * @param value The value.
+     * @param timestamp The time of the table in microseconds.
+     */
+    private void append(final int entry, final LogValue value, final long timestamp) {
+        switch (value.type) {
+            case Raw -> this.log.appendRaw(entry, value.getRaw(), timestamp);
+            case Boolean -> this.log.appendBoolean(entry, value.getBoolean(), timestamp);
+            case Integer -> this.log.appendInteger(entry, value.getInteger(), timestamp);
+            case Float -> this.log.appendFloat(entry, value.getFloat(), timestamp);
+            case Double -> this.log.appendDouble(entry, value.getDouble(), timestamp);
+            case String -> this.log.appendString(entry, value.getString(), timestamp);
+            case BooleanArray -> this.log.appendBooleanArray(entry, value.getBooleanArray(),
+                    timestamp);
+            case IntegerArray -> this.log.appendIntegerArray(entry, value.getIntegerArray(),
+                    timestamp);
+            case FloatArray -> this.log.appendFloatArray(entry, value.getFloatArray(), timestamp);
+            case DoubleArray -> this.log.appendDoubleArray(entry, value.getDoubleArray(),
+                    timestamp);
+            case StringArray -> this.log.appendStringArray(entry, value.getStringArray(),
+                    timestamp);
+            default -> {
+                // Nothing else can be written to a WPILOG file
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.chopshop166.chopshoplib.logging;
+
+import org.littletonrobotics.junction.LogTable;
+
+/**
+ * Logger for an entire data object.
+ *
+ * Implementations are generated at compile time for classes annotated with
+ * {@link GenerateLogData}, and are named after the data class with {@code Logger} appended (nested
+ * class names are joined with underscores).
+ *
+ * @param <T> The data object type.
+ */
+public interface DataLogger<T> {
+
+    /**
+     * Write the data object to the log.
+     *
+     * @param data The data object to read from.
+     * @param table The table to log into.
+     * @param state The last logged values, used to skip unchanged fields.
+     */
+    void toLog(T data, LogTable table, LogState state);
+
+    /**
+     * Read the data object from the log.
+     *
+     * @param data The data object to update.
+     * @param table The table to read from.
+     */
+    void fromLog(T data, LogTable table);
+}
@@ -1,44 +1,39 @@
 package com.chopshop166.chopshoplib.logging;
 
-import java.lang.reflect.Field;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
 import org.littletonrobotics.junction.LogTable;
 import org.littletonrobotics.junction.inputs.LoggableInputs;
 
-/** Data object wrapper. */
+/**
+ * Data object wrapper.
+ *
+ * The fields to log are resolved once per class and shared between all instances. With
+ * {@link #setDeltaLogging} turned on, fields that haven't changed since the last cycle are skipped.
+ */
 public class DataWrapper implements LoggableInputs {
 
-    /** The list of objects to log. */
-    private final List<LogConfig> logConfig = new ArrayList<>();
+    /** The last logged values, for delta logging. */
+    private final LogState logState = new LogState();
+
+    /**
+     * Only write fields that changed since the last cycle.
+     *
+     * This applies to every data object, and is off by default. Replay is unaffected.
+     *
+     * @param enabled True to skip writing unchanged fields.
+     */
+    public static void setDeltaLogging(final boolean enabled) {
+        LogState.setDeltaEnabled(enabled);
+    }
 
     @Override
     public void toLog(final LogTable table) {
-        this.getLogValues().forEach(c -> c.toLog(table, this));
+        LogSchema.of(this.getClass()).toLog(this, table, this.logState);
     }
 
     @Override
     public void fromLog(final LogTable table) {
-        this.getLogValues().forEach(c -> c.fromLog(table, this));
-    }
-
-    private List<LogConfig> getLogValues() {
-        // On first run, cache the mapping of field and logname to logger
-        if (this.logConfig.isEmpty()) {
-            this.logConfig.addAll(Arrays.stream(this.getClass().getFields())
-                    .filter(f -> f.getAnnotation(NoLog.class) == null)
-                    .filter(DataWrapper::fieldTypeIsLoggable).map(LogConfig::fromField)
-                    .filter(c -> c != null).toList());
-        }
-        return this.logConfig;
-    }
-
-    private static boolean fieldTypeIsLoggable(final Field field) {
-        final Class<?> fieldType = field.getType();
-        return LoggableInputs.class.isAssignableFrom(fieldType) || fieldType.isEnum()
-                || FieldLogger.BOXABLE_CLASSES.entrySet().stream()
-                        .anyMatch(entry -> entry.getKey().isAssignableFrom(fieldType));
+        this.logState.reset();
+        LogSchema.of(this.getClass()).fromLog(this, table);
     }
 
 }
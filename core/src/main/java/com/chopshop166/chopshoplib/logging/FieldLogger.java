@@ -1,8 +1,12 @@
 package com.chopshop166.chopshoplib.logging;
 
-import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import org.littletonrobotics.junction.LogTable;
 import org.littletonrobotics.junction.inputs.LoggableInputs;
 import com.chopshop166.chopshoplib.controls.ButtonXboxController;
@@ -32,31 +36,150 @@ import edu.wpi.first.wpilibj.PneumaticsModuleType;
 import edu.wpi.first.wpilibj.XboxController;
 import edu.wpi.first.wpilibj.drive.RobotDriveBase;
 
-/** Logger wrapper for a given field type. */
+/**
+ * Logger wrapper for a given field type.
+ *
+ * Loggers are found by exact type first. Types that weren't registered directly fall back to the
+ * first registered supertype, in registration order, and that answer is cached for the type.
+ */
 /* package */ abstract class FieldLogger {
 
-    /** The classes that are able to be logged. */
-    public static final Map<Class<?>, FieldLogger> BOXABLE_CLASSES = new HashMap<>();
-    /** The logger to use for enums. */
+    /** The classes that are able to be logged, by exact type. */
+    private static final Map<Class<?>, FieldLogger> BOXABLE_CLASSES = new ConcurrentHashMap<>();
+    /** Registered types that other types can be assigned to, in order of precedence. */
+    private static final List<Class<?>> FALLBACK_TYPES = new ArrayList<>();
+    /** Loggers found for types that weren't registered directly. */
+    private static final Map<Class<?>, Optional<FieldLogger>> RESOLVED = new ConcurrentHashMap<>();
+    /** The constants of each enum, by the name they're logged as. */
+    private static final ClassValue<Map<String, Object>> ENUM_CONSTANTS = new ClassValue<>() {
+        @Override
+        protected Map<String, Object> computeValue(final Class<?> type) {
+            final Map<String, Object> constants = new HashMap<>();
+            for (final Object constant : type.getEnumConstants()) {
+                constants.put(((Enum<?>) constant).name(), constant);
+            }
+            return constants;
+        }
+    };
+    /**
+     * The logger to use for enums.
+     *
+     * Enums are logged by name, the same as {@link LogTable} and the generated loggers do.
+     */
     public static final FieldLogger ENUM_LOGGER = new FieldLogger() {
         @Override
-        public void toLog(final String name, final LogTable table, final Field field,
-                final Object that) throws IllegalAccessException {
-            table.put(name, field.get(that).toString());
+        public void toLog(final LogConfig config, final LogTable table, final Object that,
+                final LogState state, final int slot) throws Throwable {
+            final Enum<?> value = (Enum<?>) config.get(that);
+            if (value != null && state.changed(slot, value)) {
+                table.put(config.name(), value.name());
+            }
         }
 
         @Override
-        public void fromLog(final String name, final LogTable table, final Field field,
-                final Object that) throws IllegalAccessException {
-            final String fieldValueStr = field.get(that).toString();
-            final String newTableValue = table.get(name, fieldValueStr);
-            for (final var constant : field.getType().getEnumConstants()) {
-                if (constant.toString().equals(newTableValue)) {
-                    field.set(that, constant);
-                }
+        public void fromLog(final LogConfig config, final LogTable table, final Object that)
+                throws Throwable {
+            final Object fieldValue = config.get(that);
+            if (fieldValue == null) {
+                return;
+            }
+            final String newTableValue =
+                    table.get(config.name(), ((Enum<?>) fieldValue).name());
+            final Object constant = ENUM_CONSTANTS.get(config.field().getType()).get(newTableValue);
+            if (constant != null) {
+                config.set(that, constant);
             }
         }
     };
+    /** The logger to use for records that can be packed as a struct. */
+    public static final FieldLogger RECORD_LOGGER = new FieldLogger() {
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        public void toLog(final LogConfig config, final LogTable table, final Object that,
+                final LogState state, final int slot) throws Throwable {
+            final Record value = (Record) config.get(that);
+            if (value != null && state.changed(slot, value)) {
+                table.put(config.name(), (RecordStruct) RecordStruct.of(value.getClass()), value);
+            }
+        }
+
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        public void fromLog(final LogConfig config, final LogTable table, final Object that)
+                throws Throwable {
+            final RecordStruct struct =
+                    RecordStruct.of((Class<Record>) config.field().getType());
+            config.set(that, table.get(config.name(), struct, (Record) config.get(that)));
+        }
+    };
+
+    /**
+     * Find the logger for a field type.
+     *
+     * @param type The declared type of the field.
+     * @return The logger, or null if the type can't be logged.
+     */
+    public static FieldLogger forType(final Class<?> type) {
+        final FieldLogger exact = BOXABLE_CLASSES.get(type);
+        if (exact != null) {
+            return exact;
+        }
+        return RESOLVED.computeIfAbsent(type, FieldLogger::resolveFallback).orElse(null);
+    }
+
+    /**
+     * Find the logger for a type that wasn't registered directly.
+     *
+     * @param type The declared type of the field.
+     * @return The logger for the first matching supertype, if any.
+     */
+    private static Optional<FieldLogger> resolveFallback(final Class<?> type) {
+        synchronized (BOXABLE_CLASSES) {
+            for (final Class<?> candidate : FALLBACK_TYPES) {
+                if (candidate.isAssignableFrom(type)) {
+                    return Optional.of(BOXABLE_CLASSES.get(candidate));
+                }
+            }
+        }
+        // If we didn't special-case the enum, then fall back to logging its name
+        if (type.isEnum()) {
+            return Optional.of(ENUM_LOGGER);
+        }
+        // Records made of primitives and structs get a struct derived from their components
+        if (RecordStruct.isSupported(type)) {
+            return Optional.of(RECORD_LOGGER);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Register the logger for a type, unless one already exists.
+     *
+     * @param type The type to log.
+     * @param logger The logger to use.
+     */
+    private static void register(final Class<?> type, final FieldLogger logger) {
+        synchronized (BOXABLE_CLASSES) {
+            if (BOXABLE_CLASSES.putIfAbsent(type, logger) == null && hasSubtypes(type)) {
+                FALLBACK_TYPES.add(type);
+            }
+            // Anything resolved before may now have a better match
+            RESOLVED.clear();
+        }
+    }
+
+    /**
+     * Check whether other types can be assigned to this one.
+     *
+     * @param type The type to check.
+     * @return True if it's an interface, a non-final class, or an array of one.
+     */
+    private static boolean hasSubtypes(final Class<?> type) {
+        if (type.isArray()) {
+            return hasSubtypes(type.getComponentType());
+        }
+        return !type.isPrimitive() && !type.isEnum() && !Modifier.isFinal(type.getModifiers());
+    }
 
     /**
      * Create the logger to use for an enum type.
@@ -64,20 +187,25 @@ import edu.wpi.first.wpilibj.drive.RobotDriveBase;
      * @param clazz The class descriptor.
      */
     public static <T extends Enum<T>> void registerEnumForLogger(final Class<T> clazz) {
-        BOXABLE_CLASSES.putIfAbsent(clazz, new FieldLogger() {
+        register(clazz, new FieldLogger() {
             @Override
             @SuppressWarnings("unchecked")
-            public void toLog(final String name, final LogTable table, final Field field,
-                    final Object that) throws IllegalAccessException {
-                table.put(name, (T) field.get(that));
+            public void toLog(final LogConfig config, final LogTable table, final Object that,
+                    final LogState state, final int slot) throws Throwable {
+                final T value = (T) config.get(that);
+                if (value != null && state.changed(slot, value)) {
+                    table.put(config.name(), value);
+                }
             }
 
             @Override
             @SuppressWarnings("unchecked")
-            public void fromLog(final String name, final LogTable table, final Field field,
-                    final Object that) throws IllegalAccessException {
-                final T fieldValue = (T) field.get(that);
-                field.set(that, table.get(name, fieldValue));
+            public void fromLog(final LogConfig config, final LogTable table, final Object that)
+                    throws Throwable {
+                final T fieldValue = (T) config.get(that);
+                if (fieldValue != null) {
+                    config.set(that, table.get(config.name(), fieldValue));
+                }
             }
         });
     }
@@ -89,20 +217,25 @@ import edu.wpi.first.wpilibj.drive.RobotDriveBase;
      */
     public static <U extends Unit, M extends Measure<U>> void registerMeasureForLogger(
             final Class<M> clazz) {
-        BOXABLE_CLASSES.putIfAbsent(clazz, new FieldLogger() {
+        register(clazz, new FieldLogger() {
             @Override
             @SuppressWarnings("unchecked")
-            public void toLog(final String name, final LogTable table, final Field field,
-                    final Object that) throws IllegalAccessException {
-                table.put(name, (M) field.get(that));
+            public void toLog(final LogConfig config, final LogTable table, final Object that,
+                    final LogState state, final int slot) throws Throwable {
+                final M value = (M) config.get(that);
+                if (value != null && state.changed(slot, value)) {
+                    table.put(config.name(), value);
+                }
             }
 
             @Override
             @SuppressWarnings("unchecked")
-            public void fromLog(final String name, final LogTable table, final Field field,
-                    final Object that) throws IllegalAccessException {
-                final M fieldValue = (M) field.get(that);
-                field.set(that, table.get(name, fieldValue));
+            public void fromLog(final LogConfig config, final LogTable table, final Object that)
+                    throws Throwable {
+                final M fieldValue = (M) config.get(that);
+                if (fieldValue != null) {
+                    config.set(that, table.get(config.name(), fieldValue));
+                }
             }
         });
     }
@@ -110,210 +243,259 @@ import edu.wpi.first.wpilibj.drive.RobotDriveBase;
     /**
      * Convert a field to a log.
      * 
-     * @param name The name of the log.
+     * @param config The field and the name to log it as.
      * @param table The table to log into.
-     * @param field The field to log.
      * @param that The object to log from.
-     * @throws IllegalAccessException Only if something's horribly wrong
+     * @param state The last logged values, used to skip unchanged fields.
+     * @param slot The field's slot in the state.
+     * @throws Throwable Only if something's horribly wrong
      */
-    public abstract void toLog(String name, LogTable table, Field field, Object that)
-            throws IllegalAccessException;
+    public abstract void toLog(LogConfig config, LogTable table, Object that, LogState state,
+            int slot) throws Throwable;
 
     /**
      * Convert a field to a log.
      * 
-     * @param name The name of the log.
+     * @param config The field and the name to read it as.
      * @param table The table to read from.
-     * @param field The field to set.
      * @param that The object to set to.
-     * @throws IllegalAccessException Only if something's horribly wrong
+     * @throws Throwable Only if something's horribly wrong
      */
-    public abstract void fromLog(String name, LogTable table, Field field, Object that)
-            throws IllegalAccessException;
+    public abstract void fromLog(LogConfig config, LogTable table, Object that) throws Throwable;
 
     static {
-        BOXABLE_CLASSES.put(Boolean.TYPE, new FieldLogger() {
-            @Override
-            public void toLog(final String name, final LogTable table, final Field field,
-                    final Object that) throws IllegalAccessException {
-                table.put(name, field.getBoolean(that));
+        // Registration order is the precedence order for types that match more than one entry
+        register(Boolean.TYPE, new FieldLogger() {
+            @Override
+            public void toLog(final LogConfig config, final LogTable table, final Object that,
+                    final LogState state, final int slot) throws Throwable {
+                final boolean value = config.getBoolean(that);
+                if (state.changed(slot, value)) {
+                    table.put(config.name(), value);
+                }
             }
 
             @Override
-            public void fromLog(final String name, final LogTable table, final Field field,
-                    final Object that) throws IllegalAccessException {
-                field.setBoolean(that, table.get(name, field.getBoolean(that)));
+            public void fromLog(final LogConfig config, final LogTable table, final Object that)
+                    throws Throwable {
+                config.setBoolean(that, table.get(config.name(), config.getBoolean(that)));
             }
         });
-        BOXABLE_CLASSES.put(boolean[].class, new FieldLogger() {
+        register(boolean[].class, new FieldLogger() {
             @Override
-            public void toLog(final String name, final LogTable table, final Field field,
-                    final Object that) throws IllegalAccessException {
-                table.put(name, (boolean[]) field.get(that));
+            public void toLog(final LogConfig config, final LogTable table, final Object that,
+                    final LogState state, final int slot) throws Throwable {
+                final boolean[] value = (boolean[]) config.get(that);
+                if (value != null && state.changed(slot, value)) {
+                    table.put(config.name(), value);
+                }
             }
 
             @Override
-            public void fromLog(final String name, final LogTable table, final Field field,
-                    final Object that) throws IllegalAccessException {
-                field.set(that, table.get(name, (boolean[]) field.get(that)));
+            public void fromLog(final LogConfig config, final LogTable table, final Object that)
+                    throws Throwable {
+                config.set(that, table.get(config.name(), (boolean[]) config.get(that)));
             }
         });
-        BOXABLE_CLASSES.put(Double.TYPE, new FieldLogger() {
+        register(Double.TYPE, new FieldLogger() {
             @Override
-            public void toLog(final String name, final LogTable table, final Field field,
-                    final Object that) throws IllegalAccessException {
-                table.put(name, field.getDouble(that));
+            public void toLog(final LogConfig config, final LogTable table, final Object that,
+                    final LogState state, final int slot) throws Throwable {
+                final double value = config.getDouble(that);
+                if (state.changed(slot, value)) {
+                    table.put(config.name(), value);
+                }
             }
 
             @Override
-            public void fromLog(final String name, final LogTable table, final Field field,
-                    final Object that) throws IllegalAccessException {
-                field.setDouble(that, table.get(name, field.getDouble(that)));
+            public void fromLog(final LogConfig config, final LogTable table, final Object that)
+                    throws Throwable {
+                config.setDouble(that, table.get(config.name(), config.getDouble(that)));
             }
         });
-        BOXABLE_CLASSES.put(double[].class, new FieldLogger() {
+        register(double[].class, new FieldLogger() {
             @Override
-            public void toLog(final String name, final LogTable table, final Field field,
-                    final Object that) throws IllegalAccessException {
-                table.put(name, (double[]) field.get(that));
+            public void toLog(final LogConfig config, final LogTable table, final Object that,
+                    final LogState state, final int slot) throws Throwable {
+                final double[] value = (double[]) config.get(that);
+                if (value != null && state.changed(slot, value)) {
+                    table.put(config.name(), value);
+                }
             }
 
             @Override
-            public void fromLog(final String name, final LogTable table, final Field field,
-                    final Object that) throws IllegalAccessException {
-                field.set(that, table.get(name, (double[]) field.get(that)));
+            public void fromLog(final LogConfig config, final LogTable table, final Object that)
+                    throws Throwable {
+                config.set(that, table.get(config.name(), (double[]) config.get(that)));
             }
         });
-        BOXABLE_CLASSES.put(Integer.TYPE, new FieldLogger() {
+        register(Integer.TYPE, new FieldLogger() {
             @Override
-            public void toLog(final String name, final LogTable table, final Field field,
-                    final Object that) throws IllegalAccessException {
-                table.put(name, field.getInt(that));
+            public void toLog(final LogConfig config, final LogTable table, final Object that,
+                    final LogState state, final int slot) throws Throwable {
+                final int value = config.getInt(that);
+                if (state.changed(slot, value)) {
+                    table.put(config.name(), value);
+                }
             }
 
             @Override
-            public void fromLog(final String name, final LogTable table, final Field field,
-                    final Object that) throws IllegalAccessException {
-                field.setInt(that, table.get(name, field.getInt(that)));
+            public void fromLog(final LogConfig config, final LogTable table, final Object that)
+                    throws Throwable {
+                config.setInt(that, table.get(config.name(), config.getInt(that)));
             }
         });
-        BOXABLE_CLASSES.put(int[].class, new FieldLogger() {
+        register(int[].class, new FieldLogger() {
             @Override
-            public void toLog(final String name, final LogTable table, final Field field,
-                    final Object that) throws IllegalAccessException {
-                table.put(name, (int[]) field.get(that));
+            public void toLog(final LogConfig config, final LogTable table, final Object that,
+                    final LogState state, final int slot) throws Throwable {
+                final int[] value = (int[]) config.get(that);
+                if (value != null && state.changed(slot, value)) {
+                    table.put(config.name(), value);
+                }
             }
 
             @Override
-            public void fromLog(final String name, final LogTable table, final Field field,
-                    final Object that) throws IllegalAccessException {
-                field.set(that, table.get(name, (int[]) field.get(that)));
+            public void fromLog(final LogConfig config, final LogTable table, final Object that)
+                    throws Throwable {
+                config.set(that, table.get(config.name(), (int[]) config.get(that)));
             }
         });
-        BOXABLE_CLASSES.put(Long.TYPE, new FieldLogger() {
+        register(Long.TYPE, new FieldLogger() {
             @Override
-            public void toLog(final String name, final LogTable table, final Field field,
-                    final Object that) throws IllegalAccessException {
-                table.put(name, field.getLong(that));
+            public void toLog(final LogConfig config, final LogTable table, final Object that,
+                    final LogState state, final int slot) throws Throwable {
+                final long value = config.getLong(that);
+                if (state.changed(slot, value)) {
+                    table.put(config.name(), value);
+                }
             }
 
             @Override
-            public void fromLog(final String name, final LogTable table, final Field field,
-                    final Object that) throws IllegalAccessException {
-                field.setLong(that, table.get(name, field.getLong(that)));
+            public void fromLog(final LogConfig config, final LogTable table, final Object that)
+                    throws Throwable {
+                config.setLong(that, table.get(config.name(), config.getLong(that)));
             }
         });
-        BOXABLE_CLASSES.put(int[].class, new FieldLogger() {
+        register(long[].class, new FieldLogger() {
             @Override
-            public void toLog(final String name, final LogTable table, final Field field,
-                    final Object that) throws IllegalAccessException {
-                table.put(name, (int[]) field.get(that));
+            public void toLog(final LogConfig config, final LogTable table, final Object that,
+                    final LogState state, final int slot) throws Throwable {
+                final long[] value = (long[]) config.get(that);
+                if (value != null && state.changed(slot, value)) {
+                    table.put(config.name(), value);
+                }
             }
 
             @Override
-            public void fromLog(final String name, final LogTable table, final Field field,
-                    final Object that) throws IllegalAccessException {
-                field.set(that, table.get(name, (int[]) field.get(that)));
+            public void fromLog(final LogConfig config, final LogTable table, final Object that)
+                    throws Throwable {
+                config.set(that, table.get(config.name(), (long[]) config.get(that)));
             }
         });
-        BOXABLE_CLASSES.put(String.class, new FieldLogger() {
+        register(String.class, new FieldLogger() {
             @Override
-            public void toLog(final String name, final LogTable table, final Field field,
-                    final Object that) throws IllegalAccessException {
-                table.put(name, (String) field.get(that));
+            public void toLog(final LogConfig config, final LogTable table, final Object that,
+                    final LogState state, final int slot) throws Throwable {
+                final String value = (String) config.get(that);
+                if (value != null && state.changed(slot, value)) {
+                    table.put(config.name(), value);
+                }
             }
 
             @Override
-            public void fromLog(final String name, final LogTable table, final Field field,
-                    final Object that) throws IllegalAccessException {
-                field.set(that, table.get(name, (String) field.get(that)));
+            public void fromLog(final LogConfig config, final LogTable table, final Object that)
+                    throws Throwable {
+                config.set(that, table.get(config.name(), (String) config.get(that)));
             }
         });
-        BOXABLE_CLASSES.put(String[].class, new FieldLogger() {
+        register(String[].class, new FieldLogger() {
             @Override
-            public void toLog(final String name, final LogTable table, final Field field,
-                    final Object that) throws IllegalAccessException {
-                table.put(name, (String[]) field.get(that));
+            public void toLog(final LogConfig config, final LogTable table, final Object that,
+                    final LogState state, final int slot) throws Throwable {
+                final String[] value = (String[]) config.get(that);
+                if (value != null && state.changed(slot, value)) {
+                    table.put(config.name(), value);
+                }
             }
 
             @Override
-            public void fromLog(final String name, final LogTable table, final Field field,
-                    final Object that) throws IllegalAccessException {
-                field.set(that, table.get(name, (String[]) field.get(that)));
+            public void fromLog(final LogConfig config, final LogTable table, final Object that)
+                    throws Throwable {
+                config.set(that, table.get(config.name(), (String[]) config.get(that)));
             }
         });
-        BOXABLE_CLASSES.put(LoggableInputs.class, new FieldLogger() {
+        register(LoggableInputs.class, new FieldLogger() {
             @Override
-            public void toLog(final String name, final LogTable table, final Field field,
-                    final Object that) throws IllegalAccessException {
-                final LoggableInputs inps = (LoggableInputs) field.get(that);
-                inps.toLog(table.getSubtable(name));
+            public void toLog(final LogConfig config, final LogTable table, final Object that,
+                    final LogState state, final int slot) throws Throwable {
+                final LoggableInputs inps = (LoggableInputs) config.get(that);
+                if (inps != null) {
+                    inps.toLog(table.getSubtable(config.name()));
+                }
             }
 
             @Override
-            public void fromLog(final String name, final LogTable table, final Field field,
-                    final Object that) throws IllegalAccessException {
-                final LoggableInputs inps = (LoggableInputs) field.get(that);
-                inps.fromLog(table.getSubtable(name));
+            public void fromLog(final LogConfig config, final LogTable table, final Object that)
+                    throws Throwable {
+                final LoggableInputs inps = (LoggableInputs) config.get(that);
+                if (inps != null) {
+                    inps.fromLog(table.getSubtable(config.name()));
+                }
             }
         });
-        BOXABLE_CLASSES.put(StructSerializable.class, new FieldLogger() {
+        register(StructSerializable.class, new FieldLogger() {
             @Override
-            public void toLog(final String name, final LogTable table, final Field field,
-                    final Object that) throws IllegalAccessException {
-                table.put(name, (StructSerializable) field.get(that));
+            public void toLog(final LogConfig config, final LogTable table, final Object that,
+                    final LogState state, final int slot) throws Throwable {
+                final StructSerializable value = (StructSerializable) config.get(that);
+                if (value != null && state.changed(slot, value)) {
+                    table.put(config.name(), value);
+                }
             }
 
             @Override
-            public void fromLog(final String name, final LogTable table, final Field field,
-                    final Object that) throws IllegalAccessException {
-                field.set(that, table.get(name, (StructSerializable) field.get(that)));
+            public void fromLog(final LogConfig config, final LogTable table, final Object that)
+                    throws Throwable {
+                final StructSerializable fieldValue = (StructSerializable) config.get(that);
+                if (fieldValue != null) {
+                    config.set(that, table.get(config.name(), fieldValue));
+                }
             }
         });
-        BOXABLE_CLASSES.put(StructSerializable[].class, new FieldLogger() {
+        register(StructSerializable[].class, new FieldLogger() {
             @Override
-            public void toLog(final String name, final LogTable table, final Field field,
-                    final Object that) throws IllegalAccessException {
-                table.put(name, (StructSerializable[]) field.get(that));
+            public void toLog(final LogConfig config, final LogTable table, final Object that,
+                    final LogState state, final int slot) throws Throwable {
+                final StructSerializable[] value = (StructSerializable[]) config.get(that);
+                if (value != null && state.changed(slot, value)) {
+                    table.put(config.name(), value);
+                }
             }
 
             @Override
-            public void fromLog(final String name, final LogTable table, final Field field,
-                    final Object that) throws IllegalAccessException {
-                field.set(that, table.get(name, new StructSerializable[0]));
+            public void fromLog(final LogConfig config, final LogTable table, final Object that)
+                    throws Throwable {
+                config.set(that, table.get(config.name(), new StructSerializable[0]));
             }
         });
-        BOXABLE_CLASSES.put(ProtobufSerializable.class, new FieldLogger() {
+        register(ProtobufSerializable.class, new FieldLogger() {
             @Override
-            public void toLog(final String name, final LogTable table, final Field field,
-                    final Object that) throws IllegalAccessException {
-                table.put(name, (ProtobufSerializable) field.get(that));
+            public void toLog(final LogConfig config, final LogTable table, final Object that,
+                    final LogState state, final int slot) throws Throwable {
+                final ProtobufSerializable value = (ProtobufSerializable) config.get(that);
+                if (value != null && state.changed(slot, value)) {
+                    table.put(config.name(), value);
+                }
             }
 
             @Override
-            public void fromLog(final String name, final LogTable table, final Field field,
-                    final Object that) throws IllegalAccessException {
-                field.set(that, table.get(name, (ProtobufSerializable) field.get(that)));
+            public void fromLog(final LogConfig config, final LogTable table, final Object that)
+                    throws Throwable {
+                final ProtobufSerializable fieldValue = (ProtobufSerializable) config.get(that);
+                if (fieldValue != null) {
+                    config.set(that, table.get(config.name(), fieldValue));
+                }
             }
         });
         // Measurements
@@ -5,7 +5,12 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
-/** Annotation to mark that this class needs a data object generated. */
+/**
+ * Annotation to mark that this class needs a {@link DataLogger} generated.
+ *
+ * The generated logger reads and writes the fields directly, so {@link DataWrapper} doesn't need
+ * reflection for this class.
+ */
 @Retention(RetentionPolicy.CLASS)
 @Target(ElementType.TYPE)
 public @interface GenerateLogData {
@@ -1,12 +1,41 @@
 package com.chopshop166.chopshoplib.logging;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import org.littletonrobotics.junction.LogTable;
+import edu.wpi.first.wpilibj.DriverStation;
+
+/**
+ * A field to log, with its accessors compiled to method handles.
+ *
+ * Primitive fields keep their primitive type in the handle so nothing gets boxed, while reference
+ * fields are adapted to {@link Object} so a single exact call shape works for all of them.
+ *
+ * @param name The name it gets logged as.
+ * @param field The field itself.
+ * @param getter Handle that reads the field, typed {@code (Object)T}.
+ * @param setter Handle that writes the field, typed {@code (Object,T)void}, or null if final.
+ * @param logger The logger for the field's type.
+ * @param every The number of cycles between each write.
+ * @param once Whether it's only written when it changes.
+ */
+/* package */ record LogConfig(String name, Field field, MethodHandle getter, MethodHandle setter,
+        FieldLogger logger, int every, boolean once) {
+
+    /** Lookup used to compile the accessors. */
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    /** Fields that have already reported a failure, so each one is only reported once. */
+    private static final Set<Field> REPORTED = ConcurrentHashMap.newKeySet();
 
-/* package */ record LogConfig(String name, Field field, FieldLogger logger) {
     /**
      * Create from a single field, checking annotations.
-     * 
+     *
      * @param field The field to use.
      * @return A new object.
      */
@@ -17,43 +46,220 @@ import org.littletonrobotics.junction.LogTable;
             name = field.getAnnotation(LogName.class).value();
         }
         // Figure out which logger goes with that value
-        FieldLogger logger = null;
-        for (final var entry : FieldLogger.BOXABLE_CLASSES.entrySet()) {
-            if (entry.getKey().isAssignableFrom(field.getType())) {
-                logger = entry.getValue();
-                break;
-            }
+        final FieldLogger logger = FieldLogger.forType(field.getType());
+        if (logger == null) {
+            return null;
         }
-        // If we didn't special-case the enum, then fall back to the string method
-        if (logger == null && field.getType().isEnum()) {
-            logger = FieldLogger.ENUM_LOGGER;
+        // Build the accessors once, so the hot path doesn't go through reflection
+        try {
+            field.trySetAccessible();
+            final Class<?> valueType =
+                    field.getType().isPrimitive() ? field.getType() : Object.class;
+            final MethodHandle getter = LOOKUP.unreflectGetter(field)
+                    .asType(MethodType.methodType(valueType, Object.class));
+            MethodHandle setter = null;
+            if (!Modifier.isFinal(field.getModifiers())) {
+                setter = LOOKUP.unreflectSetter(field)
+                        .asType(MethodType.methodType(void.class, Object.class, valueType));
+            }
+            final LogEvery every = field.getAnnotation(LogEvery.class);
+            return new LogConfig(name, field, getter, setter, logger,
+                    every == null ? 1 : every.value(), field.isAnnotationPresent(LogOnce.class));
+        } catch (final IllegalAccessException ex) {
+            return null;
         }
-        return logger == null ? null : new LogConfig(name, field, logger);
+    }
+
+    /**
+     * Reach this field through a nested data object, so it can be logged from the parent.
+     *
+     * @param parent The field that holds the nested data object.
+     * @return A config with the combined name and accessors.
+     */
+    public LogConfig under(final LogConfig parent) {
+        final MethodHandle nestedSetter = this.setter == null ? null
+                : MethodHandles.filterArguments(this.setter, 0, parent.getter);
+        return new LogConfig(parent.name + "/" + this.name, this.field,
+                MethodHandles.filterArguments(this.getter, 0, parent.getter), nestedSetter,
+                this.logger, this.every, this.once);
     }
 
     /**
      * Log the field to the given table.
-     * 
+     *
      * @param table A logging table.
+     * @param that The object to log from.
+     * @param state The last logged values, used to skip unchanged fields.
+     * @param slot The field's slot in the state.
      */
-    public void toLog(final LogTable table, final Object that) {
+    @SuppressWarnings({"PMD.AvoidCatchingThrowable", "PMD.AvoidRethrowingException"})
+    public void toLog(final LogTable table, final Object that, final LogState state,
+            final int slot) {
         try {
-            this.logger.toLog(this.name, table, this.field, that);
-        } catch (IllegalAccessException ex) {
+            this.logger.toLog(this, table, that, state, slot);
+        } catch (final WrongMethodTypeException ex) {
             // Silently fail
+        } catch (final Error ex) {
+            throw ex;
+        } catch (final Throwable ex) {
+            this.reportFailure("log", ex);
         }
     }
 
     /**
      * Read the field from the given table.
-     * 
+     *
+     * Final fields that aren't nested inputs can't be read, and should be left out of the replay.
+     *
      * @param table A logging table.
+     * @param that The object to set to.
      */
+    @SuppressWarnings({"PMD.AvoidCatchingThrowable", "PMD.AvoidRethrowingException"})
     public void fromLog(final LogTable table, final Object that) {
         try {
-            this.logger.fromLog(this.name, table, this.field, that);
-        } catch (IllegalAccessException ex) {
+            this.logger.fromLog(this, table, that);
+        } catch (final WrongMethodTypeException ex) {
             // Silently fail
+        } catch (final Error ex) {
+            throw ex;
+        } catch (final Throwable ex) {
+            this.reportFailure("replay", ex);
         }
     }
+
+    /**
+     * Report that the field couldn't be logged, the first time it happens.
+     *
+     * @param action What was being done with the field.
+     * @param ex The cause.
+     */
+    private void reportFailure(final String action, final Throwable ex) {
+        if (REPORTED.add(this.field)) {
+            DriverStation.reportError("Could not " + action + " " + this.name + ": " + ex,
+                    ex.getStackTrace());
+        }
+    }
+
+    /**
+     * Read a reference field.
+     *
+     * @param that The object to read from.
+     * @return The field value.
+     * @throws Throwable Only if something's horribly wrong
+     */
+    public Object get(final Object that) throws Throwable {
+        return (Object) this.getter.invokeExact(that);
+    }
+
+    /**
+     * Write a reference field.
+     *
+     * @param that The object to write to.
+     * @param value The new value.
+     * @throws Throwable Only if something's horribly wrong
+     */
+    public void set(final Object that, final Object value) throws Throwable {
+        this.setter.invokeExact(that, value);
+    }
+
+    /**
+     * Read any field, boxing primitives.
+     *
+     * @param that The object to read from.
+     * @return The field value.
+     * @throws Throwable Only if something's horribly wrong
+     */
+    public Object getBoxed(final Object that) throws Throwable {
+        return this.field.getType().isPrimitive()
+                ? this.getter.invoke(that)
+                : (Object) this.getter.invokeExact(that);
+    }
+
+    /**
+     * Read a boolean field.
+     *
+     * @param that The object to read from.
+     * @return The field value.
+     * @throws Throwable Only if something's horribly wrong
+     */
+    public boolean getBoolean(final Object that) throws Throwable {
+        return (boolean) this.getter.invokeExact(that);
+    }
+
+    /**
+     * Write a boolean field.
+     *
+     * @param that The object to write to.
+     * @param value The new value.
+     * @throws Throwable Only if something's horribly wrong
+     */
+    public void setBoolean(final Object that, final boolean value) throws Throwable {
+        this.setter.invokeExact(that, value);
+    }
+
+    /**
+     * Read a double field.
+     *
+     * @param that The object to read from.
+     * @return The field value.
+     * @throws Throwable Only if something's horribly wrong
+     */
+    public double getDouble(final Object that) throws Throwable {
+        return (double) this.getter.invokeExact(that);
+    }
+
+    /**
+     * Write a double field.
+     *
+     * @param that The object to write to.
+     * @param value The new value.
+     * @throws Throwable Only if something's horribly wrong
+     */
+    public void setDouble(final Object that, final double value) throws Throwable {
+        this.setter.invokeExact(that, value);
+    }
+
+    /**
+     * Read an int field.
+     *
+     * @param that The object to read from.
+     * @return The field value.
+     * @throws Throwable Only if something's horribly wrong
+     */
+    public int getInt(final Object that) throws Throwable {
+        return (int) this.getter.invokeExact(that);
+    }
+
+    /**
+     * Write an int field.
+     *
+     * @param that The object to write to.
+     * @param value The new value.
+     * @throws Throwable Only if something's horribly wrong
+     */
+    public void setInt(final Object that, final int value) throws Throwable {
+        this.setter.invokeExact(that, value);
+    }
+
+    /**
+     * Read a long field.
+     *
+     * @param that The object to read from.
+     * @return The field value.
+     * @throws Throwable Only if something's horribly wrong
+     */
+    public long getLong(final Object that) throws Throwable {
+        return (long) this.getter.invokeExact(that);
+    }
+
+    /**
+     * Write a long field.
+     *
+     * @param that The object to write to.
+     * @param value The new value.
+     * @throws Throwable Only if something's horribly wrong
+     */
+    public void setLong(final Object that, final long value) throws Throwable {
+        this.setter.invokeExact(that, value);
+    }
 }
@@ -0,0 +1,23 @@
+package com.chopshop166.chopshoplib.logging;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation to only log a field every few cycles.
+ *
+ * The log keeps the last value written until the next one, so slow-moving values like
+ * temperatures can be logged less often without leaving gaps.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface LogEvery {
+    /**
+     * The number of cycles between each write.
+     * 
+     * @return The number of cycles.
+     **/
+    int value();
+}
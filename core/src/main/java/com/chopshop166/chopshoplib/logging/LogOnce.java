@@ -0,0 +1,19 @@
+package com.chopshop166.chopshoplib.logging;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation for a field that's constant, or close to it.
+ *
+ * The field is written the first time its data object is logged, and after that only when it no
+ * longer equals the last value written, whether or not delta logging is on. The log keeps the value
+ * in between, so it's still read back during replay. This is meant for values like strings and
+ * enums.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface LogOnce {
+}
@@ -0,0 +1,261 @@
+package com.chopshop166.chopshoplib.logging;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.littletonrobotics.junction.LogTable;
+import org.littletonrobotics.junction.inputs.LoggableInputs;
+
+/**
+ * The resolved logging layout of a single data class.
+ *
+ * This is built once per class and shared by every instance, so the fields only get scanned the
+ * first time any object of that class is logged.
+ */
+/* package */ final class LogSchema {
+
+    /** The schema for each class, built on first use. */
+    private static final ClassValue<LogSchema> SCHEMAS = new ClassValue<>() {
+        @Override
+        protected LogSchema computeValue(final Class<?> type) {
+            return new LogSchema(type);
+        }
+    };
+
+    /** The generated logger for the class, if there is one. */
+    private final DataLogger<DataWrapper> generated;
+    /** The steps to log reflectively, if there is no generated logger. */
+    private final Step[] steps;
+    /** The steps to read back during replay. */
+    private final Step[] replaySteps;
+    /** The number of delta logging slots. */
+    private final int slots;
+
+    /**
+     * One step of logging a data object reflectively.
+     *
+     * Nested data objects that use the default logging are flattened, so their fields get written
+     * straight into the parent's table under the combined key. The nested object itself is kept
+     * as a step in front of its fields, which is used instead if it turns out to be a subclass.
+     *
+     * @param config The field, with accessors from the top-level object.
+     * @param slot The delta logging slot, or -1 if it doesn't have one.
+     * @param exactType For a flattened object, the class its fields came from.
+     * @param end For a flattened object, the index after its last field.
+     */
+    private record Step(LogConfig config, int slot, Class<?> exactType, int end) {
+
+        /**
+         * Check whether a field marked with {@link LogOnce} changed.
+         *
+         * @param data The top-level data object.
+         * @param state The last logged values.
+         * @return True if the field should be written.
+         */
+        @SuppressWarnings("PMD.AvoidCatchingThrowable")
+        public boolean needsWrite(final Object data, final LogState state) {
+            if (!this.config.once()) {
+                return true;
+            }
+            try {
+                return state.once(this.slot, this.config.getBoxed(data));
+            } catch (final Throwable ex) {
+                return true;
+            }
+        }
+
+        /**
+         * Check whether the flattened fields can be used for a data object.
+         *
+         * @param data The top-level data object.
+         * @return True if the nested object is exactly the flattened class.
+         */
+        @SuppressWarnings("PMD.AvoidCatchingThrowable")
+        public boolean holdsExactType(final Object data) {
+            try {
+                final Object nested = this.config.get(data);
+                return nested != null && nested.getClass() == this.exactType;
+            } catch (final Throwable ex) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Resolve the layout of a class.
+     *
+     * @param type The data class.
+     */
+    private LogSchema(final Class<?> type) {
+        this.generated = findGeneratedLogger(type);
+        final List<Step> logSteps = new ArrayList<>();
+        final List<Step> readSteps = new ArrayList<>();
+        final int[] slot = new int[1];
+        if (this.generated == null) {
+            final Set<Class<?>> path = new HashSet<>();
+            path.add(type);
+            addSteps(type, null, logSteps, slot, path, false);
+            // Final fields can only be updated in place, so only nested inputs are kept for those
+            addSteps(type, null, readSteps, new int[1], path, true);
+        }
+        this.steps = logSteps.toArray(new Step[0]);
+        this.replaySteps = readSteps.toArray(new Step[0]);
+        this.slots = slot[0];
+    }
+
+    /**
+     * Get the shared schema for a class.
+     *
+     * @param type The data class.
+     * @return The schema.
+     */
+    public static LogSchema of(final Class<?> type) {
+        return SCHEMAS.get(type);
+    }
+
+    /**
+     * Write a data object to the log.
+     *
+     * @param data The data object.
+     * @param table The table to log into.
+     * @param state The last logged values of the data object.
+     */
+    public void toLog(final DataWrapper data, final LogTable table, final LogState state) {
+        if (this.generated == null) {
+            state.begin(this.slots);
+            for (int i = 0; i < this.steps.length; i++) {
+                final Step step = this.steps[i];
+                final boolean due = state.due(step.config().every());
+                if (step.exactType() == null) {
+                    if (due && step.needsWrite(data, state)) {
+                        step.config().toLog(table, data, state, step.slot());
+                    }
+                } else if (!due || !step.holdsExactType(data)) {
+                    if (due) {
+                        // Log it as its own subtable instead
+                        step.config().toLog(table, data, state, step.slot());
+                    }
+                    i = step.end() - 1;
+                }
+            }
+            state.end();
+        } else {
+            this.generated.toLog(data, table, state);
+        }
+    }
+
+    /**
+     * Read a data object from the log.
+     *
+     * @param data The data object.
+     * @param table The table to read from.
+     */
+    public void fromLog(final DataWrapper data, final LogTable table) {
+        if (this.generated == null) {
+            for (int i = 0; i < this.replaySteps.length; i++) {
+                final Step step = this.replaySteps[i];
+                if (step.exactType() == null) {
+                    step.config().fromLog(table, data);
+                } else if (!step.holdsExactType(data)) {
+                    step.config().fromLog(table, data);
+                    i = step.end() - 1;
+                }
+            }
+        } else {
+            this.generated.fromLog(data, table);
+        }
+    }
+
+    /**
+     * Add the steps for each field of a class.
+     *
+     * @param type The class to add the fields of.
+     * @param parent The field holding an object of that class, or null for the top level.
+     * @param steps The steps to add to.
+     * @param slot The next delta logging slot, updated as fields are added.
+     * @param path The classes currently being flattened, to avoid cycles.
+     * @param replay Whether to leave out fields that can't be read back.
+     */
+    private static void addSteps(final Class<?> type, final LogConfig parent,
+            final List<Step> steps, final int[] slot, final Set<Class<?>> path,
+            final boolean replay) {
+        for (final Field field : type.getFields()) {
+            if (Modifier.isStatic(field.getModifiers()) || field.isAnnotationPresent(NoLog.class)) {
+                continue;
+            }
+            LogConfig config = LogConfig.fromField(field);
+            if (config == null) {
+                continue;
+            }
+            if (parent != null) {
+                config = config.under(parent);
+            }
+            final Class<?> fieldType = field.getType();
+            if (isFlattenable(fieldType, path)) {
+                final int header = steps.size();
+                steps.add(null);
+                path.add(fieldType);
+                addSteps(fieldType, config, steps, slot, path, replay);
+                path.remove(fieldType);
+                steps.set(header, new Step(config, -1, fieldType, steps.size()));
+            } else if (LoggableInputs.class.isAssignableFrom(fieldType)) {
+                steps.add(new Step(config, -1, null, 0));
+            } else if (!replay || config.setter() != null) {
+                steps.add(new Step(config, slot[0]++, null, 0));
+            }
+        }
+    }
+
+    /**
+     * Check whether a nested data object can be written straight into its parent's table.
+     *
+     * That's only the case for data wrappers that use the default logging, since anything else
+     * might write extra values.
+     *
+     * @param type The declared type of the nested field.
+     * @param path The classes currently being flattened.
+     * @return True if its fields can be flattened.
+     */
+    private static boolean isFlattenable(final Class<?> type, final Set<Class<?>> path) {
+        if (!DataWrapper.class.isAssignableFrom(type) || path.contains(type)) {
+            return false;
+        }
+        try {
+            return type.getMethod("toLog", LogTable.class).getDeclaringClass() == DataWrapper.class
+                    && type.getMethod("fromLog", LogTable.class)
+                            .getDeclaringClass() == DataWrapper.class;
+        } catch (final NoSuchMethodException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Find the generated logger for exactly the given class.
+     *
+     * Subclasses don't inherit their parent's logger, since it wouldn't know about their fields.
+     *
+     * @param clazz The data class.
+     * @return The logger, or null if the class wasn't annotated with {@link GenerateLogData}.
+     */
+    @SuppressWarnings("unchecked")
+    private static DataLogger<DataWrapper> findGeneratedLogger(final Class<?> clazz) {
+        final String pkg = clazz.getPackageName();
+        String simpleName = clazz.getName().replace('$', '_');
+        if (!pkg.isEmpty()) {
+            simpleName = simpleName.substring(pkg.length() + 1);
+        }
+        final String loggerName = (pkg.isEmpty() ? "" : pkg + ".") + simpleName + "Logger";
+        try {
+            final Class<?> loggerClass = Class.forName(loggerName, true, clazz.getClassLoader());
+            if (!DataLogger.class.isAssignableFrom(loggerClass)) {
+                return null;
+            }
+            return (DataLogger<DataWrapper>) loggerClass.getDeclaredConstructor().newInstance();
+        } catch (final ReflectiveOperationException ex) {
+            return null;
+        }
+    }
+}
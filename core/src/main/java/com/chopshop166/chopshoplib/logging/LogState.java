@@ -0,0 +1,411 @@
+package com.chopshop166.chopshoplib.logging;
+
+import java.util.Arrays;
+import java.util.Objects;
+import edu.wpi.first.units.Measure;
+
+/**
+ * The last logged value of each field of a data object, used by delta logging.
+ *
+ * When delta logging is enabled, a field is only written to the log table if it differs from what
+ * was written last time. Log tables keep their values between cycles, so skipping an unchanged
+ * field leaves the previous value in place. Each field gets a slot number, assigned in logging
+ * order.
+ *
+ * It also counts cycles, for fields annotated with {@link LogEvery}, and remembers the fields
+ * annotated with {@link LogOnce}.
+ *
+ * A state is tied to the table it logs into. Replaying with {@link #reset} (done automatically by
+ * {@link DataWrapper#fromLog}) makes the next write a full one.
+ */
+public final class LogState {
+
+    /** Marks a measure slot whose last value was null. */
+    private static final Object NULL_MEASURE = new Object();
+    /** Marks a {@link LogOnce} slot that hasn't been written yet. */
+    private static final Object UNSET = new Object();
+    /** Whether delta logging is turned on. */
+    private static volatile boolean deltaEnabled;
+
+    /** The last primitive value of each slot, as raw bits. */
+    private long[] bits = new long[0];
+    /** The last reference value of each slot, with arrays copied. */
+    private Object[] refs = new Object[0];
+    /** Whether values are being recorded this cycle. */
+    private boolean active;
+    /** Whether every slot holds the value that's in the table. */
+    private boolean primed;
+    /** The last value written for each {@link LogOnce} slot. */
+    private Object[] onceValues = new Object[0];
+    /** The number of times the data object has been logged. */
+    private long cycle;
+
+    /**
+     * Turn delta logging on or off for every data object.
+     *
+     * @param enabled True to skip writing unchanged fields.
+     */
+    public static void setDeltaEnabled(final boolean enabled) {
+        deltaEnabled = enabled;
+    }
+
+    /**
+     * Check whether delta logging is turned on.
+     *
+     * @return True if unchanged fields are skipped.
+     */
+    public static boolean isDeltaEnabled() {
+        return deltaEnabled;
+    }
+
+    /**
+     * Start logging a data object.
+     *
+     * @param slots The number of fields that will be checked.
+     */
+    public void begin(final int slots) {
+        if (this.onceValues.length != slots) {
+            this.onceValues = new Object[slots];
+            Arrays.fill(this.onceValues, UNSET);
+        }
+        if (!deltaEnabled) {
+            this.active = false;
+            this.primed = false;
+            return;
+        }
+        if (this.bits.length != slots) {
+            this.bits = new long[slots];
+            this.refs = new Object[slots];
+            this.primed = false;
+        }
+        this.active = true;
+    }
+
+    /** Finish logging a data object. */
+    public void end() {
+        this.primed = this.active;
+        this.cycle++;
+    }
+
+    /**
+     * Check whether a field that's only logged every few cycles should be written this cycle.
+     *
+     * @param every The number of cycles between each write.
+     * @return True if the field should be written.
+     */
+    public boolean due(final int every) {
+        return every <= 1 || this.cycle % every == 0;
+    }
+
+    /** Forget the last logged values, so that the next write is a full one. */
+    public void reset() {
+        this.primed = false;
+        Arrays.fill(this.refs, null);
+        Arrays.fill(this.onceValues, UNSET);
+    }
+
+    /**
+     * Check whether a {@link LogOnce} field needs to be written.
+     *
+     * This is tracked even when delta logging is off.
+     *
+     * @param slot The field's slot.
+     * @param value The current value.
+     * @return True the first time, and whenever it stops equalling the last value written.
+     */
+    public boolean once(final int slot, final Object value) {
+        if (Objects.equals(this.onceValues[slot], value)) {
+            return false;
+        }
+        this.onceValues[slot] = value;
+        return true;
+    }
+
+    /**
+     * Check a primitive value against the last one and remember it.
+     *
+     * @param slot The field's slot.
+     * @param value The raw bits of the new value.
+     * @return True if it needs to be written.
+     */
+    private boolean changedBits(final int slot, final long value) {
+        if (!this.active) {
+            return true;
+        }
+        if (this.primed && this.bits[slot] == value) {
+            return false;
+        }
+        this.bits[slot] = value;
+        return true;
+    }
+
+    /**
+     * Check whether a boolean field changed.
+     *
+     * @param slot The field's slot.
+     * @param value The current value.
+     * @return True if it needs to be written.
+     */
+    public boolean changed(final int slot, final boolean value) {
+        return this.changedBits(slot, value ? 1 : 0);
+    }
+
+    /**
+     * Check whether an int field changed.
+     *
+     * @param slot The field's slot.
+     * @param value The current value.
+     * @return True if it needs to be written.
+     */
+    public boolean changed(final int slot, final int value) {
+        return this.changedBits(slot, value);
+    }
+
+    /**
+     * Check whether a long field changed.
+     *
+     * @param slot The field's slot.
+     * @param value The current value.
+     * @return True if it needs to be written.
+     */
+    public boolean changed(final int slot, final long value) {
+        return this.changedBits(slot, value);
+    }
+
+    /**
+     * Check whether a double field changed.
+     *
+     * @param slot The field's slot.
+     * @param value The current value.
+     * @return True if it needs to be written.
+     */
+    public boolean changed(final int slot, final double value) {
+        return this.changedBits(slot, Double.doubleToRawLongBits(value));
+    }
+
+    /**
+     * Check whether a boolean array field changed.
+     *
+     * @param slot The field's slot.
+     * @param value The current value.
+     * @return True if it needs to be written.
+     */
+    public boolean changed(final int slot, final boolean[] value) {
+        if (!this.active) {
+            return true;
+        }
+        if (this.primed && Arrays.equals((boolean[]) this.refs[slot], value)) {
+            return false;
+        }
+        this.refs[slot] = value == null ? null : value.clone();
+        return true;
+    }
+
+    /**
+     * Check whether an int array field changed.
+     *
+     * @param slot The field's slot.
+     * @param value The current value.
+     * @return True if it needs to be written.
+     */
+    public boolean changed(final int slot, final int[] value) {
+        if (!this.active) {
+            return true;
+        }
+        if (this.primed && Arrays.equals((int[]) this.refs[slot], value)) {
+            return false;
+        }
+        this.refs[slot] = value == null ? null : value.clone();
+        return true;
+    }
+
+    /**
+     * Check whether a long array field changed.
+     *
+     * @param slot The field's slot.
+     * @param value The current value.
+     * @return True if it needs to be written.
+     */
+    public boolean changed(final int slot, final long[] value) {
+        if (!this.active) {
+            return true;
+        }
+        if (this.primed && Arrays.equals((long[]) this.refs[slot], value)) {
+            return false;
+        }
+        this.refs[slot] = value == null ? null : value.clone();
+        return true;
+    }
+
+    /**
+     * Check whether a double array field changed.
+     *
+     * @param slot The field's slot.
+     * @param value The current value.
+     * @return True if it needs to be written.
+     */
+    public boolean changed(final int slot, final double[] value) {
+        if (!this.active) {
+            return true;
+        }
+        if (this.primed && Arrays.equals((double[]) this.refs[slot], value)) {
+            return false;
+        }
+        this.refs[slot] = value == null ? null : value.clone();
+        return true;
+    }
+
+    /**
+     * Check whether a string array field changed.
+     *
+     * @param slot The field's slot.
+     * @param value The current value.
+     * @return True if it needs to be written.
+     */
+    public boolean changed(final int slot, final String[] value) {
+        if (!this.active) {
+            return true;
+        }
+        if (this.primed && Arrays.equals((String[]) this.refs[slot], value)) {
+            return false;
+        }
+        this.refs[slot] = value == null ? null : value.clone();
+        return true;
+    }
+
+    /**
+     * Check whether a string field changed.
+     *
+     * @param slot The field's slot.
+     * @param value The current value.
+     * @return True if it needs to be written.
+     */
+    public boolean changed(final int slot, final String value) {
+        return this.changedImmutable(slot, value);
+    }
+
+    /**
+     * Check whether an enum field changed.
+     *
+     * @param slot The field's slot.
+     * @param value The current value.
+     * @return True if it needs to be written.
+     */
+    public boolean changed(final int slot, final Enum<?> value) {
+        return this.changedImmutable(slot, value);
+    }
+
+    /**
+     * Check whether a measure field changed.
+     *
+     * Measures are logged as their magnitude in base units, so that's what gets compared.
+     *
+     * @param slot The field's slot.
+     * @param value The current value.
+     * @return True if it needs to be written.
+     */
+    public boolean changed(final int slot, final Measure<?> value) {
+        if (!this.active) {
+            return true;
+        }
+        final boolean wasNull = this.refs[slot] == NULL_MEASURE;
+        if (value == null) {
+            if (this.primed && wasNull) {
+                return false;
+            }
+            this.refs[slot] = NULL_MEASURE;
+            return true;
+        }
+        final long raw = Double.doubleToRawLongBits(value.baseUnitMagnitude());
+        if (this.primed && !wasNull && this.bits[slot] == raw) {
+            return false;
+        }
+        this.refs[slot] = null;
+        this.bits[slot] = raw;
+        return true;
+    }
+
+    /**
+     * Check whether an array of objects changed.
+     *
+     * An element that's the same instance as last time counts as changed, since it may have been
+     * modified in place.
+     *
+     * @param slot The field's slot.
+     * @param value The current value.
+     * @return True if it needs to be written.
+     */
+    public boolean changed(final int slot, final Object[] value) {
+        if (!this.active) {
+            return true;
+        }
+        if (this.primed && sameElements((Object[]) this.refs[slot], value)) {
+            return false;
+        }
+        this.refs[slot] = value == null ? null : value.clone();
+        return true;
+    }
+
+    /**
+     * Check whether an object field changed.
+     *
+     * The same instance as last time counts as changed, since it may have been modified in place.
+     *
+     * @param slot The field's slot.
+     * @param value The current value.
+     * @return True if it needs to be written.
+     */
+    public boolean changed(final int slot, final Object value) {
+        if (!this.active) {
+            return true;
+        }
+        final Object last = this.refs[slot];
+        if (this.primed && (value == null ? last == null : last != value && value.equals(last))) {
+            return false;
+        }
+        this.refs[slot] = value;
+        return true;
+    }
+
+    /**
+     * Check whether a value that can't be modified changed.
+     *
+     * @param slot The field's slot.
+     * @param value The current value.
+     * @return True if it needs to be written.
+     */
+    private boolean changedImmutable(final int slot, final Object value) {
+        if (!this.active) {
+            return true;
+        }
+        if (this.primed && Objects.equals(this.refs[slot], value)) {
+            return false;
+        }
+        this.refs[slot] = value;
+        return true;
+    }
+
+    /**
+     * Compare two object arrays, treating reused instances as different.
+     *
+     * @param last The last logged copy.
+     * @param value The current array.
+     * @return True if nothing changed.
+     */
+    private static boolean sameElements(final Object[] last, final Object[] value) {
+        if (last == null || value == null) {
+            return last == value;
+        }
+        if (last.length != value.length) {
+            return false;
+        }
+        for (int i = 0; i < value.length; i++) {
+            final Object element = value[i];
+            if (element == null ? last[i] != null
+                    : element == last[i] || !element.equals(last[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
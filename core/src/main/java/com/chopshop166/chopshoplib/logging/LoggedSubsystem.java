@@ -17,6 +17,8 @@ public abstract class LoggedSubsystem<D extends LoggableInputs, M extends Loggab
     private final D ioData;
     /** The hardware map. */
     private final M map;
+    /** The background logging job, if asynchronous logging is on. */
+    private AsyncLogJob asyncJob;
 
     /**
      * Constructor.
@@ -48,12 +50,32 @@ public abstract class LoggedSubsystem<D extends LoggableInputs, M extends Loggab
         return this.map;
     }
 
+    /**
+     * Serialize the data object on a background thread.
+     *
+     * The loop pays for copying the data object into a back buffer, and for waiting on the worker
+     * in {@link AsyncLogQueue#flush()}, which logs the results in the same cycle. The data object
+     * has to be a {@link DataWrapper} with a no-argument constructor and the default logging, and
+     * its logged fields have to be primitives, arrays, immutable objects or measures. It's always
+     * logged directly during replay, and whenever a snapshot can't be taken.
+     *
+     * @param enabled True to log in the background.
+     * @return Whether the data object is being logged in the background.
+     */
+    public final boolean setAsyncLogging(final boolean enabled) {
+        this.asyncJob = enabled ? AsyncLogJob.create(this.ioData) : null;
+        return this.asyncJob != null;
+    }
+
     @Override
     public void periodic() {
         // This method will be called once per scheduler run
         // Use this for any background processing
         this.map.updateData(this.ioData);
-        Logger.processInputs(this.getName(), this.ioData);
+        if (this.asyncJob == null || Logger.hasReplaySource()
+                || !this.asyncJob.submit(this.getName())) {
+            Logger.processInputs(this.getName(), this.ioData);
+        }
     }
 
 }
@@ -0,0 +1,358 @@
+package com.chopshop166.chopshoplib.logging;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import edu.wpi.first.util.struct.Struct;
+import edu.wpi.first.util.struct.StructSerializable;
+
+/**
+ * A struct codec derived from the components of a record.
+ *
+ * Records whose components are all primitives, structs, or other such records can be logged as a
+ * single packed entry. The schema lists the components in declaration order.
+ *
+ * @param <T> The record type.
+ */
+public final class RecordStruct<T extends Record> implements Struct<T> {
+
+    /** The codec for each record class, or null if it isn't supported. */
+    private static final ClassValue<RecordStruct<?>> STRUCTS = new ClassValue<>() {
+        @Override
+        protected RecordStruct<?> computeValue(final Class<?> type) {
+            return create(type);
+        }
+    };
+    /** The record classes whose structs are being built on this thread. */
+    private static final ThreadLocal<Set<Class<?>>> IN_PROGRESS =
+            ThreadLocal.withInitial(HashSet::new);
+    /** Lookup used to compile the accessors. */
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    /** How a single component gets packed. */
+    private enum Kind {
+        /** A boolean, packed as one byte. */
+        BOOLEAN("bool", 1),
+        /** An 8-bit integer. */
+        BYTE("int8", 1),
+        /** A 16-bit integer. */
+        SHORT("int16", 2),
+        /** A 32-bit integer. */
+        INT("int32", 4),
+        /** A 64-bit integer. */
+        LONG("int64", 8),
+        /** A 32-bit float. */
+        FLOAT("float", 4),
+        /** A 64-bit float. */
+        DOUBLE("double", 8),
+        /** A nested struct. */
+        STRUCT(null, 0);
+
+        /** The schema type name. */
+        private final String schemaType;
+        /** The packed size in bytes. */
+        private final int size;
+
+        /**
+         * Constructor.
+         *
+         * @param schemaType The schema type name.
+         * @param size The packed size in bytes.
+         */
+        Kind(final String schemaType, final int size) {
+            this.schemaType = schemaType;
+            this.size = size;
+        }
+    }
+
+    /**
+     * A single record component.
+     *
+     * @param name The component name.
+     * @param kind How it gets packed.
+     * @param getter Handle that reads it, typed {@code (Object)T}.
+     * @param nested The struct for a nested value, or null.
+     */
+    private record Component(String name, Kind kind, MethodHandle getter, Struct<Object> nested) {
+    }
+
+    /** The record class. */
+    private final Class<T> type;
+    /** The struct type name. */
+    private final String typeName;
+    /** The components, in declaration order. */
+    private final Component[] components;
+    /** The canonical constructor, taking an {@code Object[]} of components. */
+    private final MethodHandle constructor;
+    /** The packed size in bytes. */
+    private final int size;
+    /** The schema string. */
+    private final String schema;
+    /** The structs used by the components. */
+    private final Struct<?>[] nested;
+
+    /**
+     * Constructor.
+     *
+     * @param type The record class.
+     * @param components The components, in declaration order.
+     * @param constructor The canonical constructor, taking an {@code Object[]}.
+     */
+    private RecordStruct(final Class<T> type, final Component[] components,
+            final MethodHandle constructor) {
+        this.type = type;
+        this.typeName = type.getName().replaceAll("[^A-Za-z0-9_]", "_");
+        this.components = components;
+        this.constructor = constructor;
+        int totalSize = 0;
+        final StringBuilder builder = new StringBuilder();
+        final List<Struct<?>> structs = new ArrayList<>();
+        for (final Component component : components) {
+            if (builder.length() > 0) {
+                builder.append(';');
+            }
+            if (component.kind() == Kind.STRUCT) {
+                totalSize += component.nested().getSize();
+                builder.append(component.nested().getTypeName());
+                if (!structs.contains(component.nested())) {
+                    structs.add(component.nested());
+                }
+            } else {
+                totalSize += component.kind().size;
+                builder.append(component.kind().schemaType);
+            }
+            builder.append(' ').append(component.name());
+        }
+        this.size = totalSize;
+        this.schema = builder.toString();
+        this.nested = structs.toArray(new Struct<?>[0]);
+    }
+
+    /**
+     * Get the struct for a record class.
+     *
+     * @param <T> The record type.
+     * @param type The record class.
+     * @return The struct.
+     * @throws IllegalArgumentException If a component can't be packed.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends Record> RecordStruct<T> of(final Class<T> type) {
+        final RecordStruct<?> struct = STRUCTS.get(type);
+        if (struct == null) {
+            throw new IllegalArgumentException(type.getName() + " can't be logged as a struct");
+        }
+        return (RecordStruct<T>) struct;
+    }
+
+    /**
+     * Check whether a class is a record that can be logged as a struct.
+     *
+     * @param type The class to check.
+     * @return True if every component can be packed.
+     */
+    public static boolean isSupported(final Class<?> type) {
+        return type.isRecord() && STRUCTS.get(type) != null;
+    }
+
+    @Override
+    public Class<T> getTypeClass() {
+        return this.type;
+    }
+
+    @Override
+    public String getTypeName() {
+        return this.typeName;
+    }
+
+    @Override
+    public int getSize() {
+        return this.size;
+    }
+
+    @Override
+    public String getSchema() {
+        return this.schema;
+    }
+
+    @Override
+    public Struct<?>[] getNested() {
+        return this.nested.clone();
+    }
+
+    @Override
+    public boolean isImmutable() {
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings({"unchecked", "PMD.AvoidCatchingThrowable"})
+    public T unpack(final ByteBuffer bb) {
+        final Object[] values = new Object[this.components.length];
+        for (int i = 0; i < values.length; i++) {
+            final Component component = this.components[i];
+            values[i] = switch (component.kind()) {
+                case BOOLEAN -> bb.get() != 0;
+                case BYTE -> bb.get();
+                case SHORT -> bb.getShort();
+                case INT -> bb.getInt();
+                case LONG -> bb.getLong();
+                case FLOAT -> bb.getFloat();
+                case DOUBLE -> bb.getDouble();
+                case STRUCT -> component.nested().unpack(bb);
+            };
+        }
+        try {
+            return (T) this.constructor.invoke(values);
+        } catch (final Throwable ex) {
+            throw new IllegalStateException("Could not create " + this.type.getName(), ex);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("PMD.AvoidCatchingThrowable")
+    public void pack(final ByteBuffer bb, final T value) {
+        try {
+            for (final Component component : this.components) {
+                final MethodHandle getter = component.getter();
+                switch (component.kind()) {
+                    case BOOLEAN -> bb.put((boolean) getter.invokeExact((Object) value) ? (byte) 1
+                            : (byte) 0);
+                    case BYTE -> bb.put((byte) getter.invokeExact((Object) value));
+                    case SHORT -> bb.putShort((short) getter.invokeExact((Object) value));
+                    case INT -> bb.putInt((int) getter.invokeExact((Object) value));
+                    case LONG -> bb.putLong((long) getter.invokeExact((Object) value));
+                    case FLOAT -> bb.putFloat((float) getter.invokeExact((Object) value));
+                    case DOUBLE -> bb.putDouble((double) getter.invokeExact((Object) value));
+                    case STRUCT -> component.nested().pack(bb,
+                            (Object) getter.invokeExact((Object) value));
+                }
+            }
+        } catch (final Throwable ex) {
+            throw new IllegalStateException("Could not pack " + this.type.getName(), ex);
+        }
+    }
+
+    /**
+     * Build the struct for a class.
+     *
+     * @param type The class.
+     * @return The struct, or null if it isn't a record or a component can't be packed.
+     */
+    private static RecordStruct<?> create(final Class<?> type) {
+        if (!type.isRecord()) {
+            return null;
+        }
+        final Set<Class<?>> inProgress = IN_PROGRESS.get();
+        inProgress.add(type);
+        try {
+            return build(type);
+        } finally {
+            inProgress.remove(type);
+        }
+    }
+
+    /**
+     * Build the struct for a record class.
+     *
+     * @param type The record class.
+     * @return The struct, or null if a component can't be packed.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static RecordStruct<?> build(final Class<?> type) {
+        final RecordComponent[] recordComponents = type.getRecordComponents();
+        final Component[] components = new Component[recordComponents.length];
+        final Class<?>[] types = new Class<?>[recordComponents.length];
+        try {
+            for (int i = 0; i < recordComponents.length; i++) {
+                final RecordComponent recordComponent = recordComponents[i];
+                final Class<?> componentType = recordComponent.getType();
+                types[i] = componentType;
+                final Kind kind = kindOf(componentType);
+                final Struct<Object> nested = kind == Kind.STRUCT ? structFor(componentType) : null;
+                if (kind == null || kind == Kind.STRUCT && nested == null) {
+                    return null;
+                }
+                final var accessor = recordComponent.getAccessor();
+                accessor.trySetAccessible();
+                final Class<?> valueType =
+                        componentType.isPrimitive() ? componentType : Object.class;
+                final MethodHandle getter = LOOKUP.unreflect(accessor)
+                        .asType(MethodType.methodType(valueType, Object.class));
+                components[i] = new Component(recordComponent.getName(), kind, getter, nested);
+            }
+            final Constructor<?> canonical = type.getDeclaredConstructor(types);
+            canonical.trySetAccessible();
+            final MethodHandle constructor = LOOKUP.unreflectConstructor(canonical)
+                    .asSpreader(Object[].class, types.length);
+            return new RecordStruct(type, components, constructor);
+        } catch (final ReflectiveOperationException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Work out how to pack a component type.
+     *
+     * @param type The component type.
+     * @return The kind, or null if it can't be packed.
+     */
+    private static Kind kindOf(final Class<?> type) {
+        if (type == boolean.class) {
+            return Kind.BOOLEAN;
+        } else if (type == byte.class) {
+            return Kind.BYTE;
+        } else if (type == short.class) {
+            return Kind.SHORT;
+        } else if (type == int.class) {
+            return Kind.INT;
+        } else if (type == long.class) {
+            return Kind.LONG;
+        } else if (type == float.class) {
+            return Kind.FLOAT;
+        } else if (type == double.class) {
+            return Kind.DOUBLE;
+        } else if (type.isRecord() || StructSerializable.class.isAssignableFrom(type)) {
+            return Kind.STRUCT;
+        }
+        return null;
+    }
+
+    /**
+     * Find the struct for a nested component.
+     *
+     * Struct types provide theirs in a public static {@code struct} field. A record that contains
+     * itself, directly or through other records, has no fixed size, so it doesn't get one.
+     *
+     * @param type The component type.
+     * @return The struct, or null if there isn't one.
+     */
+    @SuppressWarnings("unchecked")
+    private static Struct<Object> structFor(final Class<?> type) {
+        if (StructSerializable.class.isAssignableFrom(type)) {
+            try {
+                final Field field = type.getField("struct");
+                if (Modifier.isStatic(field.getModifiers())
+                        && field.get(null) instanceof Struct<?> struct) {
+                    return (Struct<Object>) struct;
+                }
+            } catch (final ReflectiveOperationException ex) {
+                return null;
+            }
+            return null;
+        }
+        if (IN_PROGRESS.get().contains(type)) {
+            return null;
+        }
+        return (Struct<Object>) STRUCTS.get(type);
+    }
+}
@@ -0,0 +1,130 @@
+package com.chopshop166.chopshoplib.logging;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.littletonrobotics.junction.LogReplaySource;
+import org.littletonrobotics.junction.LogTable;
+import org.littletonrobotics.junction.inputs.LoggableInputs;
+import org.littletonrobotics.junction.wpilog.WPILOGReader;
+
+/**
+ * Headless replay of a recorded log into data objects, as fast as possible.
+ *
+ * This doesn't need a robot or the scheduler. Each cycle of the log is read into a table, and every
+ * registered data object is filled from its subtable, the same way
+ * {@link LoggedSubsystem#periodic()} does during replay.
+ */
+public final class ReplayHarness {
+
+    /**
+     * The outcome of a replay.
+     *
+     * @param cycles The number of cycles replayed.
+     * @param nanos The time it took, in nanoseconds.
+     */
+    public record Result(long cycles, long nanos) {
+
+        /**
+         * Get the replay speed.
+         *
+         * @return The number of cycles replayed per second.
+         */
+        public double cyclesPerSecond() {
+            return this.nanos == 0 ? 0.0 : this.cycles * 1e9 / this.nanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d cycles in %.3f s (%.0f cycles/s)", this.cycles,
+                    this.nanos / 1e9, this.cyclesPerSecond());
+        }
+    }
+
+    /** Where the log data comes from. */
+    private final LogReplaySource source;
+    /** The keys that each data object is logged under. */
+    private final List<String> keys = new ArrayList<>();
+    /** The data objects to fill. */
+    private final List<LoggableInputs> inputs = new ArrayList<>();
+
+    /**
+     * Replay a WPILOG file.
+     *
+     * @param path The path to the log file.
+     */
+    public ReplayHarness(final String path) {
+        this(new WPILOGReader(path));
+    }
+
+    /**
+     * Replay from any source.
+     *
+     * @param source The replay source.
+     */
+    public ReplayHarness(final LogReplaySource source) {
+        this.source = source;
+    }
+
+    /**
+     * Fill a subsystem's data object during the replay.
+     *
+     * @param subsystem The subsystem.
+     * @return This object, for chaining.
+     */
+    public ReplayHarness add(final LoggedSubsystem<?, ?> subsystem) {
+        return this.add(subsystem.getName(), subsystem.getData());
+    }
+
+    /**
+     * Fill a data object during the replay.
+     *
+     * @param key The key it was logged under.
+     * @param data The data object.
+     * @return This object, for chaining.
+     */
+    public ReplayHarness add(final String key, final LoggableInputs data) {
+        this.keys.add(key);
+        this.inputs.add(data);
+        return this;
+    }
+
+    /**
+     * Replay the whole log.
+     *
+     * @return The number of cycles and how long they took.
+     */
+    public Result run() {
+        return this.run(() -> {
+            // Only fill the data objects
+        });
+    }
+
+    /**
+     * Replay the whole log.
+     *
+     * @param afterEachCycle Called after the data objects are filled on each cycle.
+     * @return The number of cycles and how long they took.
+     */
+    public Result run(final Runnable afterEachCycle) {
+        final int count = this.inputs.size();
+        final LogTable table = new LogTable(0);
+        final LogTable[] subtables = new LogTable[count];
+        for (int i = 0; i < count; i++) {
+            subtables[i] = table.getSubtable(this.keys.get(i));
+        }
+
+        this.source.start();
+        long cycles = 0;
+        final long start = System.nanoTime();
+        while (this.source.updateTable(table)) {
+            for (int i = 0; i < count; i++) {
+                this.inputs.get(i).fromLog(subtables[i]);
+            }
+            afterEachCycle.run();
+            cycles++;
+        }
+        final long elapsed = System.nanoTime() - start;
+        this.source.end();
+        return new Result(cycles, elapsed);
+    }
+}
@@ -0,0 +1,290 @@
+package com.chopshop166.chopshoplib.logging;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import org.littletonrobotics.junction.LogTable;
+import org.littletonrobotics.junction.inputs.LoggableInputs;
+import edu.wpi.first.units.Measure;
+import edu.wpi.first.units.MutableMeasure;
+
+/**
+ * Copies the logged fields of one data object into another of the same class.
+ *
+ * This is what fills the back buffer for asynchronous logging. Primitive fields and immutable
+ * objects are copied directly, and mutable measures are copied into immutable ones. Arrays are
+ * replaced with a copy only when their contents changed, since the log keeps a reference to them.
+ * Nested data objects are copied field by field.
+ *
+ * Classes with any other kind of object field, arrays of them, or their own {@code toLog} aren't
+ * supported, since the background thread could see them change while it logs them. An object is
+ * treated as immutable if it's a string, a boxed primitive, an enum, or every field of it is final
+ * and immutable, like a record or a WPILib geometry class.
+ */
+/* package */ final class SnapshotCopier {
+
+    /** The copier for each class, built on first use. */
+    private static final ClassValue<SnapshotCopier> COPIERS = new ClassValue<>() {
+        @Override
+        protected SnapshotCopier computeValue(final Class<?> type) {
+            return new SnapshotCopier(type);
+        }
+    };
+
+    /** Classes that are immutable, but have fields that don't look like it. */
+    private static final Set<Class<?>> IMMUTABLE_TYPES = Set.of(String.class, Boolean.class,
+            Byte.class, Character.class, Short.class, Integer.class, Long.class, Float.class,
+            Double.class);
+    /** Copies a mutable measure, typed {@code (Object)Object}. */
+    private static final MethodHandle IMMUTABLE_MEASURE;
+
+    static {
+        try {
+            IMMUTABLE_MEASURE = MethodHandles.lookup().findStatic(SnapshotCopier.class,
+                    "immutableMeasure", MethodType.methodType(Object.class, Object.class));
+        } catch (final ReflectiveOperationException ex) {
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
+
+    /** Handles that copy a single field, typed {@code (Object to, Object from)void}. */
+    private final MethodHandle[] copyHandles;
+    /** Array fields. */
+    private final LogConfig[] arrays;
+    /** Nested data object fields. */
+    private final LogConfig[] nested;
+    /** The no-argument constructor, or null if there isn't one. */
+    private final Constructor<?> constructor;
+    /** Whether every logged field can be copied. */
+    private final boolean supported;
+
+    /**
+     * Work out how to copy a class.
+     *
+     * @param type The data class.
+     */
+    private SnapshotCopier(final Class<?> type) {
+        final List<MethodHandle> handles = new ArrayList<>();
+        final List<LogConfig> arrayFields = new ArrayList<>();
+        final List<LogConfig> nestedFields = new ArrayList<>();
+        boolean canCopy = usesDefaultLogging(type);
+        for (final Field field : type.getFields()) {
+            if (Modifier.isStatic(field.getModifiers()) || field.isAnnotationPresent(NoLog.class)) {
+                continue;
+            }
+            final LogConfig config = LogConfig.fromField(field);
+            if (config == null) {
+                continue;
+            }
+            final Class<?> fieldType = field.getType();
+            if (LoggableInputs.class.isAssignableFrom(fieldType)) {
+                // Only data objects can be copied, and a class can't contain itself
+                canCopy &= DataWrapper.class.isAssignableFrom(fieldType) && fieldType != type
+                        && of(fieldType).supported;
+                nestedFields.add(config);
+            } else if (fieldType.isArray()) {
+                final Class<?> component = fieldType.getComponentType();
+                canCopy &= component.isPrimitive() || isImmutable(component, new HashSet<>());
+                arrayFields.add(config);
+            } else if (Measure.class.isAssignableFrom(fieldType)) {
+                // A final measure could be a mutable one that's changed in place
+                canCopy &= config.setter() != null;
+                if (config.setter() != null) {
+                    handles.add(MethodHandles.filterArguments(config.setter(), 1,
+                            MethodHandles.filterReturnValue(config.getter(), IMMUTABLE_MEASURE)));
+                }
+            } else {
+                canCopy &= fieldType.isPrimitive() || isImmutable(fieldType, new HashSet<>());
+                if (config.setter() != null) {
+                    handles.add(
+                            MethodHandles.filterArguments(config.setter(), 1, config.getter()));
+                }
+            }
+        }
+        this.copyHandles = handles.toArray(new MethodHandle[0]);
+        this.arrays = arrayFields.toArray(new LogConfig[0]);
+        this.nested = nestedFields.toArray(new LogConfig[0]);
+        this.constructor = findConstructor(type);
+        this.supported = canCopy && this.constructor != null;
+    }
+
+    /**
+     * Get the shared copier for a class.
+     *
+     * @param type The data class.
+     * @return The copier.
+     */
+    public static SnapshotCopier of(final Class<?> type) {
+        return COPIERS.get(type);
+    }
+
+    /**
+     * Check whether objects of this class can be copied.
+     *
+     * @return True if every logged field can be copied and there's a no-argument constructor.
+     */
+    public boolean isSupported() {
+        return this.supported;
+    }
+
+    /**
+     * Create an empty object to copy into.
+     *
+     * @return The new object.
+     * @throws ReflectiveOperationException If the constructor fails.
+     */
+    public Object newInstance() throws ReflectiveOperationException {
+        return this.constructor.newInstance();
+    }
+
+    /**
+     * Copy every logged field.
+     *
+     * @param from The object to copy from.
+     * @param to The object to copy into, of the same class.
+     * @throws Throwable If a field couldn't be accessed.
+     */
+    public void copy(final Object from, final Object to) throws Throwable {
+        for (final MethodHandle handle : this.copyHandles) {
+            handle.invokeExact(to, from);
+        }
+        for (final LogConfig config : this.arrays) {
+            final Object source = config.get(from);
+            final Object target = config.get(to);
+            if (Objects.deepEquals(source, target)) {
+                continue;
+            }
+            if (config.setter() != null) {
+                config.set(to, cloneArray(source));
+            } else if (source != null && target != null
+                    && Array.getLength(source) == Array.getLength(target)) {
+                // Final arrays can only be updated in place
+                System.arraycopy(source, 0, target, 0, Array.getLength(source));
+            }
+        }
+        for (final LogConfig config : this.nested) {
+            final Object source = config.get(from);
+            Object target = config.get(to);
+            if (source == null) {
+                if (config.setter() != null) {
+                    config.set(to, null);
+                }
+                continue;
+            }
+            final SnapshotCopier copier = of(source.getClass());
+            if (!copier.supported) {
+                throw new IllegalStateException("Can't copy field " + config.name());
+            }
+            if (target == null || target.getClass() != source.getClass()) {
+                if (config.setter() == null) {
+                    throw new IllegalStateException("Can't copy field " + config.name());
+                }
+                target = copier.newInstance();
+                config.set(to, target);
+            }
+            copier.copy(source, target);
+        }
+    }
+
+    /**
+     * Check whether a data class logs itself through {@link DataWrapper}, and nothing else.
+     *
+     * @param type The data class.
+     * @return True if it doesn't override {@code toLog}.
+     */
+    private static boolean usesDefaultLogging(final Class<?> type) {
+        try {
+            return type.getMethod("toLog", LogTable.class).getDeclaringClass() == DataWrapper.class;
+        } catch (final NoSuchMethodException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Check whether objects of a class can't change once they're constructed.
+     *
+     * @param type The declared type.
+     * @param visiting The classes being checked, to stop at cycles.
+     * @return True if it's immutable.
+     */
+    private static boolean isImmutable(final Class<?> type, final Set<Class<?>> visiting) {
+        if (type.isPrimitive() || IMMUTABLE_TYPES.contains(type) || type.isEnum()) {
+            return true;
+        }
+        if (type.isArray() || type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+            // Anything could be behind these
+            return false;
+        }
+        if (!visiting.add(type)) {
+            return true;
+        }
+        for (Class<?> current = type; current != Object.class; current = current.getSuperclass()) {
+            for (final Field field : current.getDeclaredFields()) {
+                final int modifiers = field.getModifiers();
+                if (!Modifier.isStatic(modifiers) && (!Modifier.isFinal(modifiers)
+                        || !isImmutable(field.getType(), visiting))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copy a measure if it can be changed in place.
+     *
+     * @param value The measure, or null.
+     * @return The same measure if it's immutable, or an immutable copy.
+     */
+    private static Object immutableMeasure(final Object value) {
+        if (value instanceof MutableMeasure<?, ?, ?> mutable) {
+            return mutable.copy();
+        }
+        return value;
+    }
+
+    /**
+     * Find the no-argument constructor of a class.
+     *
+     * @param type The class.
+     * @return The constructor, or null if there isn't an accessible one.
+     */
+    private static Constructor<?> findConstructor(final Class<?> type) {
+        try {
+            final Constructor<?> constructor = type.getDeclaredConstructor();
+            return constructor.trySetAccessible() ? constructor : null;
+        } catch (final NoSuchMethodException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Copy an array of any type.
+     *
+     * @param array The array, or null.
+     * @return A shallow copy.
+     */
+    private static Object cloneArray(final Object array) {
+        if (array instanceof double[] values) {
+            return values.clone();
+        } else if (array instanceof int[] values) {
+            return values.clone();
+        } else if (array instanceof long[] values) {
+            return values.clone();
+        } else if (array instanceof boolean[] values) {
+            return values.clone();
+        } else if (array instanceof Object[] values) {
+            return values.clone();
+        }
+        return array;
+    }
+}
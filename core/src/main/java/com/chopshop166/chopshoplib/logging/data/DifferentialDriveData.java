@@ -1,6 +1,7 @@
 package com.chopshop166.chopshoplib.logging.data;
 
 import com.chopshop166.chopshoplib.logging.DataWrapper;
+import com.chopshop166.chopshoplib.logging.GenerateLogData;
 
 import edu.wpi.first.wpilibj.drive.DifferentialDrive;
 import edu.wpi.first.wpilibj.drive.DifferentialDrive.WheelSpeeds;
@@ -12,6 +13,7 @@ import edu.wpi.first.wpilibj.drive.DifferentialDrive.WheelSpeeds;
  * Map. This implemnts the loggable IO layer that AdvantageKit expects and
  * provides a snapshot of sensor input.
  */
+@GenerateLogData
 public class DifferentialDriveData extends DataWrapper {
 
     /** The left motor controller (or set). */
@@ -1,13 +1,18 @@
 package com.chopshop166.chopshoplib.logging.data;
 
+import java.util.Arrays;
 import com.chopshop166.chopshoplib.logging.DataWrapper;
+import com.chopshop166.chopshoplib.logging.GenerateLogData;
+import com.chopshop166.chopshoplib.logging.LogEvery;
 import com.chopshop166.chopshoplib.logging.LogName;
+import com.chopshop166.chopshoplib.logging.LogOnce;
 import com.chopshop166.chopshoplib.logging.NoLog;
 import com.chopshop166.chopshoplib.motors.SmartMotorController;
 
 /**
  * Data object for a motor controller.
  */
+@GenerateLogData
 public class MotorControllerData extends DataWrapper {
 
     /** The setpoint of the motor. */
@@ -24,6 +29,7 @@ public class MotorControllerData extends DataWrapper {
     public double[] currentAmps;
     /** The motor temperature in celcius. */
     @LogName("TempCelsius")
+    @LogEvery(10)
     public double[] tempC;
     /** The motor output voltage. */
     @LogName("Voltage")
@@ -33,15 +39,28 @@ public class MotorControllerData extends DataWrapper {
     public int[] faults;
     /** The sticky faults that are set. */
     @LogName("Sticky Faults")
+    @LogEvery(10)
     public int[] stickyFaults;
     /** The type of motor controller. */
     @LogName("Motor Type")
+    @LogOnce
     public String motorType;
 
     /** Whether the motor is a flywheel. */
     @NoLog
     public boolean isFlywheel;
 
+    /** Buffer that the currents are read into. */
+    private double[] currentBuffer = new double[0];
+    /** Buffer that the temperatures are read into. */
+    private double[] tempBuffer = new double[0];
+    /** Buffer that the voltages are read into. */
+    private double[] voltageBuffer = new double[0];
+    /** Buffer that the faults are read into. */
+    private int[] faultBuffer = new int[0];
+    /** Buffer that the sticky faults are read into. */
+    private int[] stickyFaultBuffer = new int[0];
+
     /**
      * Constructor.
      */
@@ -81,11 +100,69 @@ public class MotorControllerData extends DataWrapper {
     public void updateInputData(final SmartMotorController motor) {
         this.distance = motor.getEncoder().getDistance();
         this.velocity = motor.getEncoder().getRate();
-        this.currentAmps = motor.getCurrentAmps();
-        this.tempC = motor.getTemperatureC();
-        this.voltage = motor.getVoltage();
-        this.faults = motor.getFaultData();
-        this.stickyFaults = motor.getStickyFaultData();
+        final int count = motor.getMotorCount();
+        if (this.currentBuffer.length != count) {
+            this.currentBuffer = new double[count];
+            this.tempBuffer = new double[count];
+            this.voltageBuffer = new double[count];
+            this.faultBuffer = new int[count];
+            this.stickyFaultBuffer = new int[count];
+        }
+        motor.readCurrentAmps(this.currentBuffer);
+        if (!Arrays.equals(this.currentAmps, this.currentBuffer)) {
+            final double[] read = this.currentBuffer;
+            this.currentBuffer = spare(this.currentAmps, count);
+            this.currentAmps = read;
+        }
+        motor.readTemperatureC(this.tempBuffer);
+        if (!Arrays.equals(this.tempC, this.tempBuffer)) {
+            final double[] read = this.tempBuffer;
+            this.tempBuffer = spare(this.tempC, count);
+            this.tempC = read;
+        }
+        motor.readVoltage(this.voltageBuffer);
+        if (!Arrays.equals(this.voltage, this.voltageBuffer)) {
+            final double[] read = this.voltageBuffer;
+            this.voltageBuffer = spare(this.voltage, count);
+            this.voltage = read;
+        }
+        motor.readFaultData(this.faultBuffer);
+        if (!Arrays.equals(this.faults, this.faultBuffer)) {
+            final int[] read = this.faultBuffer;
+            this.faultBuffer = spare(this.faults, count);
+            this.faults = read;
+        }
+        motor.readStickyFaultData(this.stickyFaultBuffer);
+        if (!Arrays.equals(this.stickyFaults, this.stickyFaultBuffer)) {
+            final int[] read = this.stickyFaultBuffer;
+            this.stickyFaultBuffer = spare(this.stickyFaults, count);
+            this.stickyFaults = read;
+        }
         this.motorType = motor.getMotorControllerType();
     }
+
+    /**
+     * Get the buffer to read into next, once a freshly read buffer has been published.
+     *
+     * The arrays are swapped instead of copied, so the array that was logged last is reused as
+     * the next buffer. It's only written on the next cycle, after the log is done with it.
+     *
+     * @param published The array that was logged last.
+     * @param count The number of motors.
+     * @return The array to read into next.
+     */
+    private static double[] spare(final double[] published, final int count) {
+        return published == null || published.length != count ? new double[count] : published;
+    }
+
+    /**
+     * Get the buffer to read into next, once a freshly read buffer has been published.
+     *
+     * @param published The array that was logged last.
+     * @param count The number of motors.
+     * @return The array to read into next.
+     */
+    private static int[] spare(final int[] published, final int count) {
+        return published == null || published.length != count ? new int[count] : published;
+    }
 }
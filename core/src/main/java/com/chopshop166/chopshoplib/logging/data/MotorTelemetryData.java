@@ -0,0 +1,139 @@
+package com.chopshop166.chopshoplib.logging.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import com.chopshop166.chopshoplib.logging.DataWrapper;
+import com.chopshop166.chopshoplib.logging.GenerateLogData;
+import com.chopshop166.chopshoplib.logging.LogEvery;
+import com.chopshop166.chopshoplib.logging.LogName;
+import com.chopshop166.chopshoplib.logging.LogOnce;
+import com.chopshop166.chopshoplib.motors.SmartMotorController;
+
+/**
+ * Telemetry for many motor controllers, stored as one column per value.
+ *
+ * Every registered controller gets one entry per physical motor in each column, so a group of
+ * three motors takes three entries; the count is read when the controller is registered. The
+ * distance and velocity of a group are repeated for each of its motors, keeping every column
+ * aligned with {@link #names}. Each column is logged as a single array, so the number of log keys
+ * doesn't grow with the number of motors.
+ *
+ * Log it like any other inputs, e.g. {@code Logger.processInputs("Motors", telemetry)} after
+ * calling {@link #update()}.
+ */
+@GenerateLogData
+public class MotorTelemetryData extends DataWrapper {
+
+    /** The name of each motor. */
+    @LogName("Names")
+    @LogOnce
+    public String[] names = new String[0];
+    /** The current of each motor in amps. */
+    @LogName("CurrentAmps")
+    public double[] currentAmps = new double[0];
+    /** The temperature of each motor in celsius. */
+    @LogName("TempCelsius")
+    @LogEvery(10)
+    public double[] tempC = new double[0];
+    /** The output voltage of each motor. */
+    @LogName("Voltage")
+    public double[] voltage = new double[0];
+    /** The distance each motor has traveled in inches. */
+    @LogName("Distance")
+    public double[] distance = new double[0];
+    /** The velocity of each motor in inches/second. */
+    @LogName("Velocity")
+    public double[] velocity = new double[0];
+
+    /** The registered controllers. */
+    private final List<SmartMotorController> controllers = new ArrayList<>();
+    /** The registered names, one per controller. */
+    private final List<String> controllerNames = new ArrayList<>();
+    /** Buffer that the currents are read into. */
+    private double[] currentBuffer = new double[0];
+    /** Buffer that the temperatures are read into. */
+    private double[] tempBuffer = new double[0];
+    /** Buffer that the voltages are read into. */
+    private double[] voltageBuffer = new double[0];
+    /** Buffer that the distances are read into. */
+    private double[] distanceBuffer = new double[0];
+    /** Buffer that the velocities are read into. */
+    private double[] velocityBuffer = new double[0];
+
+    /**
+     * Add a motor controller.
+     *
+     * @param name The name to log it as. Motors in a group are suffixed with their index.
+     * @param motor The motor controller.
+     * @return This object, for chaining.
+     */
+    public MotorTelemetryData register(final String name, final SmartMotorController motor) {
+        this.controllers.add(motor);
+        this.controllerNames.add(name);
+        this.resize();
+        return this;
+    }
+
+    /**
+     * Get the number of entries in each column.
+     *
+     * @return The total number of physical motors.
+     */
+    public int size() {
+        return this.currentBuffer.length;
+    }
+
+    /** Read every registered motor into the columns. */
+    public void update() {
+        int offset = 0;
+        for (final SmartMotorController motor : this.controllers) {
+            motor.readCurrentAmps(this.currentBuffer, offset);
+            motor.readTemperatureC(this.tempBuffer, offset);
+            final int count = motor.readVoltage(this.voltageBuffer, offset);
+            final double dist = motor.getEncoder().getDistance();
+            final double rate = motor.getEncoder().getRate();
+            Arrays.fill(this.distanceBuffer, offset, offset + count, dist);
+            Arrays.fill(this.velocityBuffer, offset, offset + count, rate);
+            offset += count;
+        }
+        this.currentAmps = publish(this.currentAmps, this.currentBuffer);
+        this.tempC = publish(this.tempC, this.tempBuffer);
+        this.voltage = publish(this.voltage, this.voltageBuffer);
+        this.distance = publish(this.distance, this.distanceBuffer);
+        this.velocity = publish(this.velocity, this.velocityBuffer);
+    }
+
+    /** Size the buffers and names for the registered controllers. */
+    private void resize() {
+        final List<String> motorNames = new ArrayList<>();
+        for (int i = 0; i < this.controllers.size(); i++) {
+            final int count = this.controllers.get(i).getMotorCount();
+            final String name = this.controllerNames.get(i);
+            for (int j = 0; j < count; j++) {
+                motorNames.add(count == 1 ? name : name + "[" + j + "]");
+            }
+        }
+        final int total = motorNames.size();
+        this.names = motorNames.toArray(new String[0]);
+        this.currentBuffer = new double[total];
+        this.tempBuffer = new double[total];
+        this.voltageBuffer = new double[total];
+        this.distanceBuffer = new double[total];
+        this.velocityBuffer = new double[total];
+    }
+
+    /**
+     * Get the array to log for a freshly read buffer.
+     *
+     * The log keeps a reference to whatever array it was given, so a logged array can't be reused.
+     * A copy is only made when the contents changed.
+     *
+     * @param published The array that was logged last.
+     * @param buffer The values that were just read.
+     * @return The array to log.
+     */
+    private static double[] publish(final double[] published, final double[] buffer) {
+        return Arrays.equals(published, buffer) ? published : buffer.clone();
+    }
+}
@@ -1,8 +1,10 @@
 package com.chopshop166.chopshoplib.logging.data;
 
 import com.chopshop166.chopshoplib.logging.DataWrapper;
+import com.chopshop166.chopshoplib.logging.GenerateLogData;
 
 /** A simple data object for a subsystem with a single motor. */
+@GenerateLogData
 public class SingleMotorSubsystemData extends DataWrapper {
 
     /** The data object for the motor. */
@@ -2,6 +2,7 @@ package com.chopshop166.chopshoplib.logging.data;
 
 import org.littletonrobotics.junction.LogTable;
 import com.chopshop166.chopshoplib.logging.DataWrapper;
+import com.chopshop166.chopshoplib.logging.GenerateLogData;
 import com.chopshop166.chopshoplib.logging.LogName;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.kinematics.ChassisSpeeds;
@@ -9,6 +10,7 @@ import edu.wpi.first.math.kinematics.SwerveModulePosition;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
 
 /** Data for the entire swerve drive subsystem. */
+@GenerateLogData
 public class SwerveDriveData extends DataWrapper {
 
     /** Front left swerve module. */
@@ -2,11 +2,13 @@ package com.chopshop166.chopshoplib.logging.data;
 
 import com.chopshop166.chopshoplib.drive.SwerveModule;
 import com.chopshop166.chopshoplib.logging.DataWrapper;
+import com.chopshop166.chopshoplib.logging.GenerateLogData;
 import com.chopshop166.chopshoplib.logging.LogName;
 import edu.wpi.first.math.kinematics.SwerveModulePosition;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
 
 /** Data for a single swerve module. */
+@GenerateLogData
 public class SwerveModuleData extends DataWrapper {
 
     /** Actual State. */
@@ -1,5 +1,7 @@
 package com.chopshop166.chopshoplib.motors;
 
+import java.util.concurrent.TimeUnit;
+import com.chopshop166.chopshoplib.can.DeviceConfigurator;
 import com.chopshop166.chopshoplib.sensors.IEncoder;
 import com.revrobotics.spark.ClosedLoopSlot;
 import com.revrobotics.spark.SparkBase;
@@ -13,6 +15,22 @@ import com.revrobotics.spark.SparkClosedLoopController;
  * normal Spark with encoders, but will also be able to use PID.
  */
 public class CSSpark extends SmartMotorController {
+    /**
+     * Default time between reads of the current and voltage, in milliseconds.
+     *
+     * This is half of a 20ms loop, not a status frame period. It makes every cycle read the value
+     * once, even with loop jitter, so it only saves the repeated reads within a cycle.
+     */
+    public static final int DEFAULT_ELECTRICAL_PERIOD_MS = 10;
+    /** Default time between reads of the temperature, in milliseconds. */
+    public static final int DEFAULT_TEMPERATURE_PERIOD_MS = 100;
+    /**
+     * Default time between reads of the faults, in milliseconds.
+     *
+     * Like {@link #DEFAULT_ELECTRICAL_PERIOD_MS}, this reads once every cycle of a 20ms loop.
+     */
+    public static final int DEFAULT_FAULT_PERIOD_MS = 10;
+
     /** The unwrapped Spark MAX object. */
     private final SparkBase spark;
     /** The PID controller from the Spark MAX. */
@@ -21,6 +39,139 @@ public class CSSpark extends SmartMotorController {
     private ControlType savedControlType = ControlType.kDutyCycle;
     /** The PID Slot to send along with all setReference commands. */
     private ClosedLoopSlot pidSlot;
+    /** The cached telemetry, or null if every read goes to the Spark. */
+    private Snapshot snapshot;
+
+    /**
+     * Tracks when a cached value is due to be read again.
+     *
+     * A value is always read the first time, and again once its period has passed.
+     */
+    /* package */ static final class ReadWindow {
+        /** The time between reads, in nanoseconds. */
+        private final long period;
+        /** When the value was last read, in nanoseconds. */
+        private long lastRead;
+        /** Whether the value has been read at all. */
+        private boolean hasRead;
+
+        /**
+         * Constructor.
+         *
+         * @param periodMs The time between reads, in milliseconds.
+         */
+        /* package */ ReadWindow(final int periodMs) {
+            this.period = TimeUnit.MILLISECONDS.toNanos(periodMs);
+        }
+
+        /**
+         * Check whether the value should be read again, and mark it as read if so.
+         *
+         * @param now The current time, in nanoseconds.
+         * @return True if the value should be read.
+         */
+        /* package */ boolean isDue(final long now) {
+            if (this.hasRead && now - this.lastRead < this.period) {
+                return false;
+            }
+            this.hasRead = true;
+            this.lastRead = now;
+            return true;
+        }
+    }
+
+    /**
+     * Telemetry read from the Spark.
+     *
+     * Each value is only read again once its period has passed, so reading the same value more
+     * than once per status frame doesn't go back through the driver.
+     */
+    private static final class Snapshot {
+        /** When the current is due to be read. */
+        private final ReadWindow currentWindow;
+        /** When the voltage is due to be read. */
+        private final ReadWindow voltageWindow;
+        /** When the temperature is due to be read. */
+        private final ReadWindow temperatureWindow;
+        /** When the faults are due to be read. */
+        private final ReadWindow faultWindow;
+        /** The output current in amps. */
+        private double current;
+        /** The output voltage. */
+        private double voltage;
+        /** The motor temperature in celsius. */
+        private double temperature;
+        /** The raw fault bits. */
+        private int faults;
+        /** The raw sticky fault bits. */
+        private int stickyFaults;
+
+        /**
+         * Constructor.
+         *
+         * @param electricalPeriodMs The time between reads of the current and voltage.
+         * @param temperaturePeriodMs The time between reads of the temperature.
+         * @param faultPeriodMs The time between reads of the faults.
+         */
+        /* package */ Snapshot(final int electricalPeriodMs, final int temperaturePeriodMs,
+                final int faultPeriodMs) {
+            this.currentWindow = new ReadWindow(electricalPeriodMs);
+            this.voltageWindow = new ReadWindow(electricalPeriodMs);
+            this.temperatureWindow = new ReadWindow(temperaturePeriodMs);
+            this.faultWindow = new ReadWindow(faultPeriodMs);
+        }
+
+        /**
+         * Get the output current.
+         *
+         * @param spark The Spark to read from.
+         * @return The current in amps.
+         */
+        /* package */ double current(final SparkBase spark) {
+            if (this.currentWindow.isDue(System.nanoTime())) {
+                this.current = spark.getOutputCurrent();
+            }
+            return this.current;
+        }
+
+        /**
+         * Get the output voltage.
+         *
+         * @param spark The Spark to read from.
+         * @return The voltage.
+         */
+        /* package */ double voltage(final SparkBase spark) {
+            if (this.voltageWindow.isDue(System.nanoTime())) {
+                this.voltage = spark.getBusVoltage() * spark.getAppliedOutput();
+            }
+            return this.voltage;
+        }
+
+        /**
+         * Get the motor temperature.
+         *
+         * @param spark The Spark to read from.
+         * @return The temperature in celsius.
+         */
+        /* package */ double temperature(final SparkBase spark) {
+            if (this.temperatureWindow.isDue(System.nanoTime())) {
+                this.temperature = spark.getMotorTemperature();
+            }
+            return this.temperature;
+        }
+
+        /**
+         * Read the faults and sticky faults if they're out of date.
+         *
+         * @param spark The Spark to read from.
+         */
+        /* package */ void refreshFaults(final SparkBase spark) {
+            if (this.faultWindow.isDue(System.nanoTime())) {
+                this.faults = spark.getFaults().rawBits;
+                this.stickyFaults = spark.getStickyFaults().rawBits;
+            }
+        }
+    }
 
     /**
      * Create a smart motor controller from an unwrapped Spark object.
@@ -37,12 +188,60 @@ public class CSSpark extends SmartMotorController {
     /**
      * Get the wrapped speed controller.
      *
+     * This waits for any configuration still queued for it, so calls made on it happen after.
+     *
      * @return The raw Spark MAX object.
      */
     public SparkBase getMotorController() {
+        DeviceConfigurator.await(this.spark);
         return this.spark;
     }
 
+    /**
+     * Get the wrapped speed controller without waiting for its configuration.
+     *
+     * @return The raw Spark object.
+     */
+    /* package */ SparkBase unwrapped() {
+        return this.spark;
+    }
+
+    /**
+     * Cache telemetry reads with the default periods.
+     *
+     * The defaults don't know how the Spark's status frames are configured, so the current,
+     * voltage and faults are still read once every 20ms cycle. To skip the reads between status
+     * frames as well, pass the configured periods to {@link #enableSnapshot(int, int, int)}.
+     *
+     * @see #enableSnapshot(int, int, int)
+     */
+    public void enableSnapshot() {
+        this.enableSnapshot(DEFAULT_ELECTRICAL_PERIOD_MS, DEFAULT_TEMPERATURE_PERIOD_MS,
+                DEFAULT_FAULT_PERIOD_MS);
+    }
+
+    /**
+     * Cache telemetry reads, only asking the Spark again once a value could have changed.
+     *
+     * Pass the status frame periods the Spark is configured with, since reading faster than a
+     * value is sent only returns the same value again. A period longer than the loop means some
+     * cycles use the value read on an earlier cycle, which is fine when the Spark hasn't sent a
+     * new one since.
+     *
+     * @param electricalPeriodMs The time between reads of the current and voltage.
+     * @param temperaturePeriodMs The time between reads of the temperature.
+     * @param faultPeriodMs The time between reads of the faults.
+     */
+    public void enableSnapshot(final int electricalPeriodMs, final int temperaturePeriodMs,
+            final int faultPeriodMs) {
+        this.snapshot = new Snapshot(electricalPeriodMs, temperaturePeriodMs, faultPeriodMs);
+    }
+
+    /** Read telemetry straight from the Spark every time. */
+    public void disableSnapshot() {
+        this.snapshot = null;
+    }
+
     /**
      * Get the wrapped PID controller.
      *
@@ -64,6 +263,7 @@ public class CSSpark extends SmartMotorController {
         } else if (controlType == PIDControlType.Velocity) {
             this.savedControlType = ControlType.kVelocity;
         }
+        this.invalidateOutput();
     }
 
     /**
@@ -73,6 +273,7 @@ public class CSSpark extends SmartMotorController {
      */
     public void setControlType(final ControlType controlType) {
         this.savedControlType = controlType;
+        this.invalidateOutput();
     }
 
     /**
@@ -86,7 +287,9 @@ public class CSSpark extends SmartMotorController {
 
     @Override
     public void setSetpoint(final double setPoint) {
-        this.sparkPID.setSetpoint(setPoint, this.savedControlType, this.pidSlot);
+        if (this.shouldSend(OutputCache.SETPOINT, setPoint)) {
+            this.sparkPID.setSetpoint(setPoint, this.savedControlType, this.pidSlot);
+        }
     }
 
     /**
@@ -103,20 +306,23 @@ public class CSSpark extends SmartMotorController {
             case 3 -> ClosedLoopSlot.kSlot3;
             default -> ClosedLoopSlot.kSlot0;
         };
+        this.invalidateOutput();
     }
 
     @Override
     public void set(final double speed) {
-        if (this.savedControlType == ControlType.kDutyCycle) {
-            this.spark.set(speed);
-        } else {
+        if (this.savedControlType != ControlType.kDutyCycle) {
             this.setSetpoint(speed);
+        } else if (this.shouldSend(OutputCache.SET, speed)) {
+            this.spark.set(speed);
         }
     }
 
     @Override
     public void setVoltage(final double outputVolts) {
-        this.spark.setVoltage(outputVolts);
+        if (this.shouldSend(OutputCache.VOLTAGE, outputVolts)) {
+            this.spark.setVoltage(outputVolts);
+        }
     }
 
     /**
@@ -126,7 +332,7 @@ public class CSSpark extends SmartMotorController {
      */
     @Override
     public double[] getTemperatureC() {
-        return new double[] {this.spark.getMotorTemperature()};
+        return new double[] {this.temperature()};
     }
 
     /**
@@ -136,26 +342,112 @@ public class CSSpark extends SmartMotorController {
      */
     @Override
     public double[] getCurrentAmps() {
-        return new double[] {this.spark.getOutputCurrent()};
+        return new double[] {this.current()};
     }
 
     @Override
     public double[] getVoltage() {
-        return new double[] {this.spark.getBusVoltage() * this.spark.getAppliedOutput()};
+        return new double[] {this.voltage()};
     }
 
     @Override
     public int[] getFaultData() {
-        return new int[] {this.spark.getFaults().rawBits};
+        return new int[] {this.faults()};
     }
 
     @Override
     public int[] getStickyFaultData() {
-        return new int[] {this.spark.getStickyFaults().rawBits};
+        return new int[] {this.stickyFaults()};
+    }
+
+    @Override
+    public int readCurrentAmps(final double[] out, final int offset) {
+        return readOne(this.current(), out, offset);
+    }
+
+    @Override
+    public int readTemperatureC(final double[] out, final int offset) {
+        return readOne(this.temperature(), out, offset);
+    }
+
+    @Override
+    public int readVoltage(final double[] out, final int offset) {
+        return readOne(this.voltage(), out, offset);
+    }
+
+    @Override
+    public int readFaultData(final int[] out, final int offset) {
+        return readOne(this.faults(), out, offset);
+    }
+
+    @Override
+    public int readStickyFaultData(final int[] out, final int offset) {
+        return readOne(this.stickyFaults(), out, offset);
+    }
+
+    @Override
+    public int getMotorCount() {
+        return 1;
     }
 
     @Override
     public String getMotorControllerType() {
         return "Spark";
     }
+
+    /**
+     * Get the output current, from the snapshot if there is one.
+     *
+     * @return The current in amps.
+     */
+    private double current() {
+        return this.snapshot == null ? this.spark.getOutputCurrent()
+                : this.snapshot.current(this.spark);
+    }
+
+    /**
+     * Get the output voltage, from the snapshot if there is one.
+     *
+     * @return The voltage.
+     */
+    private double voltage() {
+        return this.snapshot == null ? this.spark.getBusVoltage() * this.spark.getAppliedOutput()
+                : this.snapshot.voltage(this.spark);
+    }
+
+    /**
+     * Get the motor temperature, from the snapshot if there is one.
+     *
+     * @return The temperature in celsius.
+     */
+    private double temperature() {
+        return this.snapshot == null ? this.spark.getMotorTemperature()
+                : this.snapshot.temperature(this.spark);
+    }
+
+    /**
+     * Get the fault bits, from the snapshot if there is one.
+     *
+     * @return The raw fault bits.
+     */
+    private int faults() {
+        if (this.snapshot == null) {
+            return this.spark.getFaults().rawBits;
+        }
+        this.snapshot.refreshFaults(this.spark);
+        return this.snapshot.faults;
+    }
+
+    /**
+     * Get the sticky fault bits, from the snapshot if there is one.
+     *
+     * @return The raw sticky fault bits.
+     */
+    private int stickyFaults() {
+        if (this.snapshot == null) {
+            return this.spark.getStickyFaults().rawBits;
+        }
+        this.snapshot.refreshFaults(this.spark);
+        return this.snapshot.stickyFaults;
+    }
 }
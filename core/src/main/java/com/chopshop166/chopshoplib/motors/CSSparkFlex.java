@@ -1,7 +1,7 @@
 package com.chopshop166.chopshoplib.motors;
 
+import com.chopshop166.chopshoplib.can.DeviceConfigManager;
 import com.chopshop166.chopshoplib.sensors.SparkFlexEncoder;
-import com.revrobotics.PersistMode;
 import com.revrobotics.ResetMode;
 import com.revrobotics.spark.SparkFlex;
 import com.revrobotics.spark.SparkLowLevel.MotorType;
@@ -53,7 +53,7 @@ public class CSSparkFlex extends CSSpark {
     public void setInverted(final boolean isInverted) {
         final var config = new SparkFlexConfig();
         config.inverted(isInverted);
-        getMotorController().configure(config, ResetMode.kNoResetSafeParameters,
-                PersistMode.kPersistParameters);
+        DeviceConfigManager.configureSpark(this.unwrapped(), "inverted", isInverted, config,
+                ResetMode.kNoResetSafeParameters);
     }
 }
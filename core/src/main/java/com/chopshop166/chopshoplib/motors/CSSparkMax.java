@@ -1,7 +1,7 @@
 package com.chopshop166.chopshoplib.motors;
 
+import com.chopshop166.chopshoplib.can.DeviceConfigManager;
 import com.chopshop166.chopshoplib.sensors.SparkMaxEncoder;
-import com.revrobotics.PersistMode;
 import com.revrobotics.ResetMode;
 import com.revrobotics.spark.SparkLowLevel.MotorType;
 import com.revrobotics.spark.SparkMax;
@@ -26,7 +26,8 @@ public class CSSparkMax extends CSSpark {
         final var spark = new SparkMax(deviceID, MotorType.kBrushed);
         final var config = new SparkMaxConfig();
         config.encoder.countsPerRevolution(countsPerRev);
-        spark.configure(config, ResetMode.kNoResetSafeParameters, PersistMode.kPersistParameters);
+        DeviceConfigManager.configureSpark(spark, "encoder.countsPerRevolution", countsPerRev,
+                config, ResetMode.kNoResetSafeParameters);
         return new CSSparkMax(spark);
     }
 
@@ -68,7 +69,7 @@ public class CSSparkMax extends CSSpark {
     public void setInverted(final boolean isInverted) {
         final var config = new SparkMaxConfig();
         config.inverted(isInverted);
-        getMotorController().configure(config, ResetMode.kNoResetSafeParameters,
-                PersistMode.kPersistParameters);
+        DeviceConfigManager.configureSpark(this.unwrapped(), "inverted", isInverted, config,
+                ResetMode.kNoResetSafeParameters);
     }
 }
@@ -1,18 +1,65 @@
 package com.chopshop166.chopshoplib.motors;
 
+import com.chopshop166.chopshoplib.can.DeviceConfigManager;
+import com.chopshop166.chopshoplib.can.DeviceConfigurator;
+import com.chopshop166.chopshoplib.can.StatusSignalRegistry;
 import com.chopshop166.chopshoplib.sensors.TalonFXEncoder;
+import com.ctre.phoenix6.StatusSignal;
 import com.ctre.phoenix6.configs.TalonFXConfiguration;
+import com.ctre.phoenix6.controls.ControlRequest;
 import com.ctre.phoenix6.controls.DutyCycleOut;
+import com.ctre.phoenix6.controls.MotionMagicVoltage;
+import com.ctre.phoenix6.controls.PositionVoltage;
+import com.ctre.phoenix6.controls.VelocityVoltage;
+import com.ctre.phoenix6.controls.VoltageOut;
 import com.ctre.phoenix6.hardware.TalonFX;
+import com.ctre.phoenix6.signals.ControlModeValue;
 import com.ctre.phoenix6.signals.InvertedValue;
+import edu.wpi.first.units.measure.Current;
+import edu.wpi.first.units.measure.Temperature;
+import edu.wpi.first.units.measure.Voltage;
 
-/** Convenience alias for a Talon FX. */
+/**
+ * Convenience alias for a Talon FX.
+ *
+ * The telemetry signals are refreshed by {@link StatusSignalRegistry}. Control requests are
+ * created once and updated in place, and closed-loop control runs on the Talon itself using the
+ * gains in the selected slot.
+ */
 public class CSTalonFX extends SmartMotorController {
 
     /** Reference to the wrapped Talon. */
     private final TalonFX wrapped;
     /** The configuration of the talon. */
     private final TalonFXConfiguration config = new TalonFXConfiguration();
+    /** Request for open-loop output. */
+    private final DutyCycleOut dutyCycle = new DutyCycleOut(0.0);
+    /** Request for a fixed voltage. */
+    private final VoltageOut voltageOut = new VoltageOut(0.0);
+    /** Request for closed-loop velocity. */
+    private final VelocityVoltage velocity = new VelocityVoltage(0.0);
+    /** Request for closed-loop position. */
+    private final PositionVoltage position = new PositionVoltage(0.0);
+    /** Request for motion profiled position. */
+    private final MotionMagicVoltage motionMagic = new MotionMagicVoltage(0.0);
+    /** The control mode used by {@link #set} and {@link #setSetpoint}. */
+    private ControlModeValue savedControlType = ControlModeValue.DutyCycleOut;
+    /** The gain slot to use for closed-loop control. */
+    private int pidSlot;
+    /** The inversion set from the main thread, or null if it hasn't been set. */
+    private Boolean inverted;
+    /** The inversion read from the Talon by the configuration refresh. */
+    private volatile boolean refreshedInverted;
+    /** Signal for the supply current. */
+    private final StatusSignal<Current> currentSignal;
+    /** Signal for the device temperature. */
+    private final StatusSignal<Temperature> temperatureSignal;
+    /** Signal for the output voltage. */
+    private final StatusSignal<Voltage> voltageSignal;
+    /** Signal for the faults. */
+    private final StatusSignal<Integer> faultSignal;
+    /** Signal for the sticky faults. */
+    private final StatusSignal<Integer> stickyFaultSignal;
 
     /**
      * Constructor.
@@ -22,7 +69,21 @@ public class CSTalonFX extends SmartMotorController {
     public CSTalonFX(final TalonFX talon) {
         super(new MockMotorController(), new TalonFXEncoder(talon));
         this.wrapped = talon;
-        wrapped.getConfigurator().refresh(config);
+        DeviceConfigurator.configure(talon, "refresh", () -> {
+            final boolean refreshed = talon.getConfigurator().refresh(this.config).isOK();
+            if (refreshed) {
+                this.refreshedInverted =
+                        this.config.MotorOutput.Inverted == InvertedValue.Clockwise_Positive;
+            }
+            return refreshed;
+        });
+        this.currentSignal = talon.getSupplyCurrent();
+        this.temperatureSignal = talon.getDeviceTemp();
+        this.voltageSignal = talon.getMotorVoltage();
+        this.faultSignal = talon.getFaultField();
+        this.stickyFaultSignal = talon.getStickyFaultField();
+        StatusSignalRegistry.register(talon, this.currentSignal, this.temperatureSignal,
+                this.voltageSignal, this.faultSignal, this.stickyFaultSignal);
     }
 
     /**
@@ -37,15 +98,113 @@ public class CSTalonFX extends SmartMotorController {
     /**
      * Get the wrapped speed controller.
      *
+     * This waits for any configuration still queued for it, so calls made on it happen after.
+     *
      * @return The raw Talon object.
      */
     public TalonFX getMotorController() {
+        DeviceConfigurator.await(this.wrapped);
         return this.wrapped;
     }
 
+    /**
+     * Set the control type.
+     *
+     * @param controlType The controlType to set.
+     */
+    @Override
+    public void setControlType(final PIDControlType controlType) {
+        if (controlType == PIDControlType.Position) {
+            this.savedControlType = ControlModeValue.PositionVoltage;
+        } else if (controlType == PIDControlType.Velocity) {
+            this.savedControlType = ControlModeValue.VelocityVoltage;
+        }
+        this.invalidateOutput();
+    }
+
+    /**
+     * Set the control type to a nonstandard one.
+     *
+     * Only duty cycle, velocity voltage, position voltage and motion magic voltage are supported.
+     *
+     * @param controlType The controlType to set.
+     */
+    public void setControlType(final ControlModeValue controlType) {
+        switch (controlType) {
+            case DutyCycleOut, VelocityVoltage, PositionVoltage, MotionMagicVoltage ->
+                this.savedControlType = controlType;
+            default -> throw new IllegalArgumentException(
+                    "Unsupported control type " + controlType);
+        }
+        this.invalidateOutput();
+    }
+
+    /**
+     * Get the control type.
+     *
+     * @return The controlType.
+     */
+    public ControlModeValue getControlType() {
+        return this.savedControlType;
+    }
+
+    /**
+     * Change what set of PID parameters are used.
+     *
+     * @param slotId The id of the PID parameters to use, from 0 to 2.
+     * @throws IllegalArgumentException If the slot doesn't exist.
+     */
+    @Override
+    public void setPidSlot(final int slotId) {
+        if (slotId < 0 || slotId > 2) {
+            throw new IllegalArgumentException("Talon FX has no PID slot " + slotId);
+        }
+        this.pidSlot = slotId;
+        this.invalidateOutput();
+    }
+
+    @Override
+    public void setSetpoint(final double setPoint) {
+        if (!this.shouldSend(OutputCache.SETPOINT, setPoint)) {
+            return;
+        }
+        final ControlRequest request = switch (this.savedControlType) {
+            case VelocityVoltage -> this.velocity.withVelocity(setPoint).withSlot(this.pidSlot);
+            case PositionVoltage -> this.position.withPosition(setPoint).withSlot(this.pidSlot);
+            case MotionMagicVoltage -> this.motionMagic.withPosition(setPoint)
+                    .withSlot(this.pidSlot);
+            default -> this.dutyCycle.withOutput(setPoint);
+        };
+        this.wrapped.setControl(request);
+    }
+
     @Override
     public void set(final double speed) {
-        this.wrapped.setControl(new DutyCycleOut(speed));
+        if (this.savedControlType != ControlModeValue.DutyCycleOut) {
+            this.setSetpoint(speed);
+        } else if (this.shouldSend(OutputCache.SET, speed)) {
+            this.wrapped.setControl(this.dutyCycle.withOutput(speed));
+        }
+    }
+
+    @Override
+    public void setVoltage(final double outputVolts) {
+        if (this.shouldSend(OutputCache.VOLTAGE, outputVolts)) {
+            this.wrapped.setControl(this.voltageOut.withOutput(outputVolts));
+        }
+    }
+
+    @Override
+    public void stopMotor() {
+        if (this.shouldSend(OutputCache.STOP, 0.0)) {
+            this.wrapped.stopMotor();
+        }
+    }
+
+    @Override
+    public void disable() {
+        this.invalidateOutput();
+        this.wrapped.disable();
     }
 
     @Override
@@ -53,31 +212,93 @@ public class CSTalonFX extends SmartMotorController {
         return this.wrapped.get();
     }
 
+    /**
+     * Check whether the motor is inverted.
+     *
+     * The configuration is updated from the configuration threads, so this doesn't read it.
+     *
+     * @return The inversion last set, or the Talon's own inversion if it was never set.
+     */
     @Override
     public boolean getInverted() {
-        return config.MotorOutput.Inverted == InvertedValue.Clockwise_Positive;
+        return this.inverted == null ? this.refreshedInverted : this.inverted;
     }
 
     @Override
     public void setInverted(final boolean isInverted) {
-        config.MotorOutput.Inverted = isInverted ? InvertedValue.Clockwise_Positive
+        final InvertedValue direction = isInverted ? InvertedValue.Clockwise_Positive
                 : InvertedValue.CounterClockwise_Positive;
-        wrapped.getConfigurator().apply(config);
+        this.inverted = isInverted;
+        DeviceConfigManager.apply(wrapped, "MotorOutput.Inverted", isInverted, () -> {
+            // The configuration belongs to the configuration threads, so only set it here
+            config.MotorOutput.Inverted = direction;
+            return wrapped.getConfigurator().apply(config.MotorOutput).isOK();
+        });
+    }
+
+    @Override
+    public double[] getCurrentAmps() {
+        StatusSignalRegistry.refreshIfStale();
+        return new double[] { this.currentSignal.getValueAsDouble() };
+    }
+
+    @Override
+    public double[] getTemperatureC() {
+        StatusSignalRegistry.refreshIfStale();
+        return new double[] { this.temperatureSignal.getValueAsDouble() };
     }
 
     @Override
     public double[] getVoltage() {
-        return new double[] { this.wrapped.getMotorVoltage().getValueAsDouble() };
+        StatusSignalRegistry.refreshIfStale();
+        return new double[] { this.voltageSignal.getValueAsDouble() };
     }
 
     @Override
     public int[] getFaultData() {
-        return new int[] { this.wrapped.getFaultField().getValue() };
+        StatusSignalRegistry.refreshIfStale();
+        return new int[] { this.faultSignal.getValue() };
     }
 
     @Override
     public int[] getStickyFaultData() {
-        return new int[] { this.wrapped.getStickyFaultField().getValue() };
+        StatusSignalRegistry.refreshIfStale();
+        return new int[] { this.stickyFaultSignal.getValue() };
+    }
+
+    @Override
+    public int readCurrentAmps(final double[] out, final int offset) {
+        StatusSignalRegistry.refreshIfStale();
+        return readOne(this.currentSignal.getValueAsDouble(), out, offset);
+    }
+
+    @Override
+    public int readTemperatureC(final double[] out, final int offset) {
+        StatusSignalRegistry.refreshIfStale();
+        return readOne(this.temperatureSignal.getValueAsDouble(), out, offset);
+    }
+
+    @Override
+    public int readVoltage(final double[] out, final int offset) {
+        StatusSignalRegistry.refreshIfStale();
+        return readOne(this.voltageSignal.getValueAsDouble(), out, offset);
+    }
+
+    @Override
+    public int readFaultData(final int[] out, final int offset) {
+        StatusSignalRegistry.refreshIfStale();
+        return readOne(this.faultSignal.getValue(), out, offset);
+    }
+
+    @Override
+    public int readStickyFaultData(final int[] out, final int offset) {
+        StatusSignalRegistry.refreshIfStale();
+        return readOne(this.stickyFaultSignal.getValue(), out, offset);
+    }
+
+    @Override
+    public int getMotorCount() {
+        return 1;
     }
 
     @Override
@@ -2,22 +2,50 @@ package com.chopshop166.chopshoplib.motors;
 
 import java.util.ArrayList;
 import java.util.List;
+import com.chopshop166.chopshoplib.can.DeviceConfigManager;
+import com.chopshop166.chopshoplib.can.DeviceConfigurator;
 import com.chopshop166.chopshoplib.sensors.TalonSRXEncoder;
+import com.ctre.phoenix.ErrorCode;
 import com.ctre.phoenix.motorcontrol.ControlMode;
 import com.ctre.phoenix.motorcontrol.Faults;
 import com.ctre.phoenix.motorcontrol.StickyFaults;
+import com.ctre.phoenix.motorcontrol.can.SlotConfiguration;
 import com.ctre.phoenix.motorcontrol.can.TalonSRXConfiguration;
 import com.ctre.phoenix.motorcontrol.can.WPI_TalonSRX;
 
-/** Convenience alias for a Talon SRX. */
+/**
+ * Convenience alias for a Talon SRX.
+ *
+ * The gains of each added configuration are loaded into the Talon's profile slots as they're
+ * added, so switching between them only selects a slot. If there are more configurations than
+ * slots, the last slot is reloaded with the gains of whichever extra configuration is selected.
+ *
+ * Only the {@code slot0} gains of a configuration added with {@link #addConfiguration} are used.
+ * Every other setting comes from the default configuration, and isn't changed by switching.
+ *
+ * While the robot is starting, slots are loaded in the background by {@link DeviceConfigurator}.
+ * After that they're loaded without waiting for the Talon to acknowledge them, so switching to an
+ * extra configuration doesn't block the main loop. A load that fails then isn't reported.
+ */
 public class CSTalonSRX extends SmartMotorController {
 
+    /** The number of profile slots on the Talon. */
+    private static final int HARDWARE_SLOTS = 4;
+    /** Timeout for loading a slot while the robot is starting, in milliseconds. */
+    private static final int CONFIG_TIMEOUT_MS = 50;
+
     /** Reference to the wrapped Talon. */
     private final WPI_TalonSRX wrapped;
     /** The Talon control mode. */
     private ControlMode savedControlType = ControlMode.PercentOutput;
     /** List of Configurations that we can switch between. */
     private final List<TalonSRXConfiguration> config = new ArrayList<>(4);
+    /** The configuration loaded in the last slot. */
+    private int swapSlotConfig = HARDWARE_SLOTS - 1;
+    /** Reused holder for the fault flags. */
+    private final Faults faults = new Faults();
+    /** Reused holder for the sticky fault flags. */
+    private final StickyFaults stickyFaults = new StickyFaults();
 
     /**
      * Constructor.
@@ -41,9 +69,12 @@ public class CSTalonSRX extends SmartMotorController {
     /**
      * Get the wrapped speed controller.
      *
+     * This waits for any configuration still queued for it, so calls made on it happen after.
+     *
      * @return The raw Talon object.
      */
     public WPI_TalonSRX getMotorController() {
+        DeviceConfigurator.await(this.wrapped);
         return this.wrapped;
     }
 
@@ -54,21 +85,71 @@ public class CSTalonSRX extends SmartMotorController {
      */
     public void addDefaultConfiguration(final TalonSRXConfiguration config) {
         this.config.add(config);
-        this.getMotorController().configAllSettings(config);
+        DeviceConfigManager.apply(this.wrapped, "allSettings", config.toString(),
+                () -> this.wrapped.configAllSettings(config) == ErrorCode.OK);
+        // That overwrote every slot, so put the stored gains back
+        for (int i = 0; i < Math.min(this.config.size(), HARDWARE_SLOTS); i++) {
+            this.loadSlot(i == HARDWARE_SLOTS - 1 ? this.swapSlotConfig : i);
+        }
+        this.selectSlot(this.config.size() - 1);
     }
 
     /**
      * Add a configuration to the list of configurations we can swap to.
      *
+     * Only its {@code slot0} gains are used. Its other settings are ignored, so put them in the
+     * default configuration instead.
+     *
      * @param config Configuration to add to the list of stored configs.
      */
     public void addConfiguration(final TalonSRXConfiguration config) {
         this.config.add(config);
+        if (this.config.size() <= HARDWARE_SLOTS) {
+            this.loadSlot(this.config.size() - 1);
+        }
     }
 
+    /**
+     * Switch to the gains of a configuration.
+     *
+     * This only selects the profile slot holding the configuration's {@code slot0} gains, so the
+     * rest of the default configuration stays in effect.
+     *
+     * @param slotId The index of the configuration, in the order they were added.
+     */
     @Override
     public void setPidSlot(final int slotId) {
-        this.getMotorController().configAllSettings(this.config.get(slotId));
+        this.selectSlot(slotId);
+        this.invalidateOutput();
+    }
+
+    /**
+     * Select the profile slot holding a configuration's gains, loading it first if needed.
+     *
+     * @param index The index of the configuration.
+     */
+    private void selectSlot(final int index) {
+        final int slot = Math.min(index, HARDWARE_SLOTS - 1);
+        if (slot == HARDWARE_SLOTS - 1 && this.swapSlotConfig != index) {
+            this.swapSlotConfig = index;
+            this.loadSlot(index);
+        }
+        this.wrapped.selectProfileSlot(slot, 0);
+    }
+
+    /**
+     * Load a configuration's gains into its profile slot.
+     *
+     * Once the robot has started, this doesn't wait for the Talon to acknowledge the gains.
+     *
+     * @param index The index of the configuration.
+     */
+    private void loadSlot(final int index) {
+        final SlotConfiguration gains = this.config.get(index).slot0;
+        final int slot = Math.min(index, HARDWARE_SLOTS - 1);
+        final int timeoutMs = DeviceConfigurator.isCollecting() ? CONFIG_TIMEOUT_MS : 0;
+        DeviceConfigurator.configure(this.wrapped, "slot" + slot,
+                () -> this.wrapped.configureSlot(gains, slot, timeoutMs) == ErrorCode.OK);
     }
 
     /**
@@ -83,6 +164,7 @@ public class CSTalonSRX extends SmartMotorController {
         } else if (controlType == PIDControlType.Velocity) {
             this.savedControlType = ControlMode.Velocity;
         }
+        this.invalidateOutput();
     }
 
     /**
@@ -92,6 +174,7 @@ public class CSTalonSRX extends SmartMotorController {
      */
     public void setControlType(final ControlMode controlType) {
         this.savedControlType = controlType;
+        this.invalidateOutput();
     }
 
     /**
@@ -111,7 +194,9 @@ public class CSTalonSRX extends SmartMotorController {
 
     @Override
     public void setSetpoint(final double setPoint) {
-        this.wrapped.set(this.savedControlType, setPoint);
+        if (this.shouldSend(OutputCache.SETPOINT, setPoint)) {
+            this.wrapped.set(this.savedControlType, setPoint);
+        }
     }
 
     @Override
@@ -143,6 +228,38 @@ public class CSTalonSRX extends SmartMotorController {
         return new int[] {faults.toBitfield()};
     }
 
+    @Override
+    public int readCurrentAmps(final double[] out, final int offset) {
+        return readOne(this.wrapped.getSupplyCurrent(), out, offset);
+    }
+
+    @Override
+    public int readTemperatureC(final double[] out, final int offset) {
+        return readOne(this.wrapped.getTemperature(), out, offset);
+    }
+
+    @Override
+    public int readVoltage(final double[] out, final int offset) {
+        return readOne(this.wrapped.getMotorOutputVoltage(), out, offset);
+    }
+
+    @Override
+    public int readFaultData(final int[] out, final int offset) {
+        this.wrapped.getFaults(this.faults);
+        return readOne(this.faults.toBitfield(), out, offset);
+    }
+
+    @Override
+    public int readStickyFaultData(final int[] out, final int offset) {
+        this.wrapped.getStickyFaults(this.stickyFaults);
+        return readOne(this.stickyFaults.toBitfield(), out, offset);
+    }
+
+    @Override
+    public int getMotorCount() {
+        return 1;
+    }
+
     @Override
     public String getMotorControllerType() {
         return "Talon SRX";
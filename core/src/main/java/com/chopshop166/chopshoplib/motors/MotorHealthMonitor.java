@@ -0,0 +1,120 @@
+package com.chopshop166.chopshoplib.motors;
+
+import java.util.Arrays;
+import org.littletonrobotics.junction.Logger;
+
+/**
+ * Evaluates the validators of every registered motor once per cycle.
+ *
+ * Each motor's result is kept as a bitmask, with a bit set for every validator that failed, so
+ * {@link SmartMotorController#errored()} becomes a cheap read. The mask is only logged when it
+ * changes, under {@code MotorHealth/<name>}, along with an event under {@code MotorHealth/Events}
+ * listing every change in that cycle.
+ *
+ * {@link com.chopshop166.chopshoplib.commands.CommandRobot} calls {@link #periodic()} before
+ * running the scheduler. This is only meant to be used from the main loop.
+ */
+public final class MotorHealthMonitor {
+
+    /** The key the change events are logged under. */
+    private static final String EVENT_KEY = "MotorHealth/Events";
+
+    /** The registered motors. */
+    private static SmartMotorController[] motors = new SmartMotorController[0];
+    /** The key each motor's mask is logged under. */
+    private static String[] keys = new String[0];
+    /** The last mask of each motor. */
+    private static long[] masks = new long[0];
+    /** The number of cycles between each evaluation. */
+    private static int divisor = 1;
+    /** The number of cycles since the last evaluation. */
+    private static int skipped;
+
+    private MotorHealthMonitor() {
+    }
+
+    /**
+     * Evaluate a motor's validators every cycle.
+     *
+     * @param name The name to log the motor's health under.
+     * @param motor The motor.
+     */
+    public static void register(final String name, final SmartMotorController motor) {
+        final int index = motors.length;
+        motors = Arrays.copyOf(motors, index + 1);
+        keys = Arrays.copyOf(keys, index + 1);
+        masks = Arrays.copyOf(masks, index + 1);
+        motors[index] = motor;
+        keys[index] = "MotorHealth/" + name;
+        motor.setMonitored(true);
+    }
+
+    /**
+     * Stop evaluating a motor's validators, so it evaluates them itself again.
+     *
+     * @param motor The motor.
+     */
+    public static void unregister(final SmartMotorController motor) {
+        int kept = 0;
+        for (int i = 0; i < motors.length; i++) {
+            if (motors[i] != motor) {
+                motors[kept] = motors[i];
+                keys[kept] = keys[i];
+                masks[kept] = masks[i];
+                kept++;
+            }
+        }
+        motors = Arrays.copyOf(motors, kept);
+        keys = Arrays.copyOf(keys, kept);
+        masks = Arrays.copyOf(masks, kept);
+        motor.setMonitored(false);
+    }
+
+    /**
+     * Evaluate the validators less often than every cycle.
+     *
+     * Filtered validators only see one sample per evaluation, so their time constants are stretched
+     * by the same factor. To keep the same response, multiply the filter cutoff of each
+     * {@link com.chopshop166.chopshoplib.motors.validators.CurrentValidator} by the divisor.
+     *
+     * @param cycles The number of cycles between each evaluation.
+     */
+    public static void setDivisor(final int cycles) {
+        divisor = Math.max(1, cycles);
+    }
+
+    /**
+     * Get the number of registered motors.
+     *
+     * @return The number of motors.
+     */
+    public static int size() {
+        return motors.length;
+    }
+
+    /** Evaluate every motor's validators, if it's time to. */
+    public static void periodic() {
+        if (++skipped < divisor) {
+            return;
+        }
+        skipped = 0;
+        StringBuilder events = null;
+        for (int i = 0; i < motors.length; i++) {
+            final long mask = motors[i].evaluateValidators();
+            if (mask != masks[i]) {
+                Logger.recordOutput(keys[i], mask);
+                if (events == null) {
+                    events = new StringBuilder();
+                } else {
+                    events.append("; ");
+                }
+                events.append(keys[i]).append(": 0x").append(Long.toHexString(masks[i]))
+                        .append(" -> 0x").append(Long.toHexString(mask));
+                masks[i] = mask;
+            }
+        }
+        if (events != null) {
+            Logger.recordOutput(EVENT_KEY, events.toString());
+        }
+    }
+}
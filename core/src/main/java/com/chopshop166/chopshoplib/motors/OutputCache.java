@@ -0,0 +1,89 @@
+package com.chopshop166.chopshoplib.motors;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers the last output sent to a motor controller, so the same output isn't sent again.
+ *
+ * An output is skipped if it's the same kind as the last one and within the tolerance of it. It's
+ * still sent once the keepalive period has passed, so the controller's safety timeout never
+ * expires. Going to exactly zero is always sent.
+ */
+public final class OutputCache {
+
+    /** The default tolerance for treating two outputs as the same. */
+    public static final double DEFAULT_EPSILON = 1e-4;
+    /** The default time before the same output is sent again, in seconds. */
+    public static final double DEFAULT_KEEPALIVE_S = 0.05;
+
+    /** Output from {@link SmartMotorController#set}. */
+    public static final int SET = 0;
+    /** Output from {@link SmartMotorController#setSetpoint}. */
+    public static final int SETPOINT = 1;
+    /** Output from {@link SmartMotorController#setVoltage}. */
+    public static final int VOLTAGE = 2;
+    /** Output from {@link SmartMotorController#stopMotor}. */
+    public static final int STOP = 3;
+    /** Marks that nothing has been sent. */
+    private static final int NONE = -1;
+
+    /** The tolerance for treating two outputs as the same. */
+    private final double epsilon;
+    /** The time before the same output is sent again, in nanoseconds. */
+    private final long keepalive;
+    /** The kind of output sent last. */
+    private int lastKind = NONE;
+    /** The value sent last. */
+    private double lastValue;
+    /** When the last output was sent. */
+    private long lastSent;
+    /** The number of outputs that were skipped. */
+    private long skipped;
+
+    /**
+     * Constructor.
+     *
+     * @param epsilon The tolerance for treating two outputs as the same.
+     * @param keepaliveSeconds The time before the same output is sent again.
+     */
+    public OutputCache(final double epsilon, final double keepaliveSeconds) {
+        this.epsilon = epsilon;
+        this.keepalive = (long) (keepaliveSeconds * TimeUnit.SECONDS.toNanos(1));
+    }
+
+    /**
+     * Check whether an output needs to be sent, and remember it if so.
+     *
+     * @param kind The kind of output, such as {@link #SET}.
+     * @param value The output value.
+     * @return True if it should be sent.
+     */
+    public boolean shouldSend(final int kind, final double value) {
+        final long now = System.nanoTime();
+        final boolean same = kind == this.lastKind
+                && Math.abs(value - this.lastValue) <= this.epsilon
+                && (value != 0.0 || this.lastValue == 0.0);
+        if (same && now - this.lastSent < this.keepalive) {
+            this.skipped++;
+            return false;
+        }
+        this.lastKind = kind;
+        this.lastValue = value;
+        this.lastSent = now;
+        return true;
+    }
+
+    /** Forget the last output, so that the next one is always sent. */
+    public void invalidate() {
+        this.lastKind = NONE;
+    }
+
+    /**
+     * Get the number of outputs that weren't sent.
+     *
+     * @return The number of skipped outputs.
+     */
+    public long getSkipped() {
+        return this.skipped;
+    }
+}
@@ -1,8 +1,6 @@
 package com.chopshop166.chopshoplib.motors;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
 import com.chopshop166.chopshoplib.motors.validators.CurrentValidator;
 import com.chopshop166.chopshoplib.motors.validators.EncoderValidator;
 import com.chopshop166.chopshoplib.motors.validators.MotorValidator;
@@ -23,7 +21,15 @@ public class SmartMotorController implements MotorController {
     /** An encoder, if one is attached and supplied. */
     private final IEncoder encoder;
     /** Validators. */
-    private final List<MotorValidator> validators = new ArrayList<>();
+    private MotorValidator[] validators = new MotorValidator[0];
+    /** A bit for each validator that failed when they were last evaluated. */
+    private long faultMask;
+    /** Whether {@link MotorHealthMonitor} evaluates the validators. */
+    private boolean monitored;
+    /** Reused buffer for summing the currents. */
+    private double[] currentBuffer = new double[0];
+    /** The last output sent, or null if every output is sent. */
+    private OutputCache outputCache;
 
     /** Construct with mocks for everything */
     public SmartMotorController() {
@@ -86,40 +92,151 @@ public class SmartMotorController implements MotorController {
         // Do nothing for this class
     }
 
+    /**
+     * Skip outputs that match the last one sent, with the default tolerance and keepalive.
+     *
+     * @see #enableOutputCache(double, double)
+     */
+    public void enableOutputCache() {
+        this.enableOutputCache(OutputCache.DEFAULT_EPSILON, OutputCache.DEFAULT_KEEPALIVE_S);
+    }
+
+    /**
+     * Skip outputs that match the last one sent.
+     *
+     * The same output is still sent again after the keepalive period, which should be shorter
+     * than the controller's safety timeout.
+     *
+     * @param epsilon The tolerance for treating two outputs as the same.
+     * @param keepaliveSeconds The time before the same output is sent again.
+     */
+    public void enableOutputCache(final double epsilon, final double keepaliveSeconds) {
+        this.outputCache = new OutputCache(epsilon, keepaliveSeconds);
+    }
+
+    /** Send every output. */
+    public void disableOutputCache() {
+        this.outputCache = null;
+    }
+
+    /**
+     * Get the output cache.
+     *
+     * @return The cache, or null if every output is sent.
+     */
+    public OutputCache getOutputCache() {
+        return this.outputCache;
+    }
+
+    /**
+     * Check whether an output needs to be sent to the device.
+     *
+     * @param kind The kind of output, such as {@link OutputCache#SET}.
+     * @param value The output value.
+     * @return True if it should be sent.
+     */
+    protected final boolean shouldSend(final int kind, final double value) {
+        return this.outputCache == null || this.outputCache.shouldSend(kind, value);
+    }
+
+    /**
+     * Send an output without going through the output cache.
+     *
+     * @param speed The output to send.
+     */
+    /* package */ final void setUncached(final double speed) {
+        this.wrapped.set(speed);
+    }
+
+    /** Make sure the next output is sent, after something changed what it means. */
+    protected final void invalidateOutput() {
+        if (this.outputCache != null) {
+            this.outputCache.invalidate();
+        }
+    }
+
     /**
      * Verify that all validators pass.
      *
      * Use this to test for things like current.
      *
+     * If {@link MotorHealthMonitor} evaluates this motor, this reads its last result instead of
+     * evaluating the validators again, so filtered validators only see one sample per cycle.
+     *
      * @return Whether all validators pass.
      */
     public boolean validate() {
-        return this.validators.stream().allMatch(MotorValidator::getAsBoolean);
+        if (this.monitored) {
+            return this.faultMask == 0;
+        }
+        return this.evaluateValidators() == 0;
     }
 
     /**
      * Test if any validators failed.
      *
+     * If {@link MotorHealthMonitor} evaluates this motor, this reads its last result instead of
+     * evaluating the validators again.
+     *
      * @return Whether any validators failed.
      */
     public boolean errored() {
         return !this.validate();
     }
 
+    /**
+     * Get the validators that failed when they were last evaluated.
+     *
+     * @return A mask with bit i set if validator i failed.
+     */
+    public long getFaultMask() {
+        return this.faultMask;
+    }
+
     /**
      * Reset every validator
      */
     public void resetValidators() {
-        this.validators.stream().forEach(MotorValidator::reset);
+        for (final MotorValidator validator : this.validators) {
+            validator.reset();
+        }
     }
 
     /**
      * Add a validator.
      *
+     * Only the first 64 validators are reflected in the fault mask, but all of them are checked.
+     *
      * @param validator The validator to test for.
      */
     public void addValidator(final MotorValidator validator) {
-        this.validators.add(validator);
+        this.validators = Arrays.copyOf(this.validators, this.validators.length + 1);
+        this.validators[this.validators.length - 1] = validator;
+    }
+
+    /**
+     * Evaluate every validator, and remember which ones failed.
+     *
+     * @return A mask with bit i set if validator i failed.
+     */
+    /* package */ long evaluateValidators() {
+        long mask = 0;
+        for (int i = 0; i < this.validators.length; i++) {
+            if (!this.validators[i].getAsBoolean()) {
+                mask |= 1L << Math.min(i, Long.SIZE - 1);
+            }
+        }
+        this.faultMask = mask;
+        return mask;
+    }
+
+    /**
+     * Mark whether {@link MotorHealthMonitor} evaluates the validators.
+     *
+     * @param monitored True if the monitor evaluates them.
+     */
+    /* package */ void setMonitored(final boolean monitored) {
+        this.monitored = monitored;
     }
 
     /**
@@ -140,11 +257,24 @@ public class SmartMotorController implements MotorController {
      * @param filterCutoff The time constant of the IIR filter.
      */
     public void validateCurrent(final double limit, final double filterCutoff) {
+        this.addValidator(new CurrentValidator(this::sumCurrentAmps, limit, filterCutoff));
+    }
 
-        this.addValidator(new CurrentValidator(
-                () -> Arrays.stream(this.getCurrentAmps()).reduce(Double::sum).orElse(0.0), limit,
-                filterCutoff));
-
+    /**
+     * Get the total current of every motor controller, without allocating.
+     *
+     * @return The total current in amps.
+     */
+    private double sumCurrentAmps() {
+        if (this.currentBuffer.length < this.getMotorCount()) {
+            this.currentBuffer = new double[this.getMotorCount()];
+        }
+        final int count = this.readCurrentAmps(this.currentBuffer);
+        double total = 0.0;
+        for (int i = 0; i < count; i++) {
+            total += this.currentBuffer[i];
+        }
+        return total;
     }
 
     /**
@@ -192,6 +322,184 @@ public class SmartMotorController implements MotorController {
         return new int[] {0};
     }
 
+    /**
+     * Get the number of motor controllers that report data.
+     *
+     * This is the length of the telemetry arrays. By default it's the length of
+     * {@link #getCurrentAmps()}, so subclasses that can answer without reading the currents should
+     * override it.
+     *
+     * @return The number of entries in each telemetry array.
+     */
+    public int getMotorCount() {
+        return this.getCurrentAmps().length;
+    }
+
+    /**
+     * Read all currents associated with the motor controller into an array.
+     *
+     * @param out The array to fill, with room for {@link #getMotorCount()} entries.
+     * @return The number of entries written.
+     */
+    public int readCurrentAmps(final double[] out) {
+        return this.readCurrentAmps(out, 0);
+    }
+
+    /**
+     * Read all currents associated with the motor controller into an array.
+     *
+     * @param out The array to fill.
+     * @param offset The index to start writing at.
+     * @return The number of entries written.
+     */
+    public int readCurrentAmps(final double[] out, final int offset) {
+        return copyInto(this.getCurrentAmps(), out, offset);
+    }
+
+    /**
+     * Read all temperatures associated with the motor controller into an array.
+     *
+     * @param out The array to fill, with room for {@link #getMotorCount()} entries.
+     * @return The number of entries written.
+     */
+    public int readTemperatureC(final double[] out) {
+        return this.readTemperatureC(out, 0);
+    }
+
+    /**
+     * Read all temperatures associated with the motor controller into an array.
+     *
+     * @param out The array to fill.
+     * @param offset The index to start writing at.
+     * @return The number of entries written.
+     */
+    public int readTemperatureC(final double[] out, final int offset) {
+        return copyInto(this.getTemperatureC(), out, offset);
+    }
+
+    /**
+     * Read all voltages associated with the motor controller into an array.
+     *
+     * @param out The array to fill, with room for {@link #getMotorCount()} entries.
+     * @return The number of entries written.
+     */
+    public int readVoltage(final double[] out) {
+        return this.readVoltage(out, 0);
+    }
+
+    /**
+     * Read all voltages associated with the motor controller into an array.
+     *
+     * @param out The array to fill.
+     * @param offset The index to start writing at.
+     * @return The number of entries written.
+     */
+    public int readVoltage(final double[] out, final int offset) {
+        return copyInto(this.getVoltage(), out, offset);
+    }
+
+    /**
+     * Read faults for each motor controller into an array.
+     *
+     * @param out The array to fill, with room for {@link #getMotorCount()} entries.
+     * @return The number of entries written.
+     */
+    public int readFaultData(final int[] out) {
+        return this.readFaultData(out, 0);
+    }
+
+    /**
+     * Read faults for each motor controller into an array.
+     *
+     * @param out The array to fill.
+     * @param offset The index to start writing at.
+     * @return The number of entries written.
+     */
+    public int readFaultData(final int[] out, final int offset) {
+        return copyInto(this.getFaultData(), out, offset);
+    }
+
+    /**
+     * Read sticky faults for each motor controller into an array.
+     *
+     * @param out The array to fill, with room for {@link #getMotorCount()} entries.
+     * @return The number of entries written.
+     */
+    public int readStickyFaultData(final int[] out) {
+        return this.readStickyFaultData(out, 0);
+    }
+
+    /**
+     * Read sticky faults for each motor controller into an array.
+     *
+     * @param out The array to fill.
+     * @param offset The index to start writing at.
+     * @return The number of entries written.
+     */
+    public int readStickyFaultData(final int[] out, final int offset) {
+        return copyInto(this.getStickyFaultData(), out, offset);
+    }
+
+    /**
+     * Copy telemetry values into an array, stopping at the end of the array.
+     *
+     * @param values The values to copy.
+     * @param out The array to fill.
+     * @param offset The index to start writing at.
+     * @return The number of entries written.
+     */
+    private static int copyInto(final double[] values, final double[] out, final int offset) {
+        final int count = Math.max(0, Math.min(values.length, out.length - offset));
+        System.arraycopy(values, 0, out, offset, count);
+        return count;
+    }
+
+    /**
+     * Copy telemetry values into an array, stopping at the end of the array.
+     *
+     * @param values The values to copy.
+     * @param out The array to fill.
+     * @param offset The index to start writing at.
+     * @return The number of entries written.
+     */
+    private static int copyInto(final int[] values, final int[] out, final int offset) {
+        final int count = Math.max(0, Math.min(values.length, out.length - offset));
+        System.arraycopy(values, 0, out, offset, count);
+        return count;
+    }
+
+    /**
+     * Write a single telemetry value into an array, unless the array is already full.
+     *
+     * @param value The value to write.
+     * @param out The array to fill.
+     * @param offset The index to write at.
+     * @return The number of entries written.
+     */
+    protected static int readOne(final double value, final double[] out, final int offset) {
+        if (offset < 0 || offset >= out.length) {
+            return 0;
+        }
+        out[offset] = value;
+        return 1;
+    }
+
+    /**
+     * Write a single telemetry value into an array, unless the array is already full.
+     *
+     * @param value The value to write.
+     * @param out The array to fill.
+     * @param offset The index to write at.
+     * @return The number of entries written.
+     */
+    protected static int readOne(final int value, final int[] out, final int offset) {
+        if (offset < 0 || offset >= out.length) {
+            return 0;
+        }
+        out[offset] = value;
+        return 1;
+    }
+
     /**
      * Get a string saying what kind of motor controller it is.
      * 
@@ -203,7 +511,9 @@ public class SmartMotorController implements MotorController {
 
     @Override
     public void set(final double speed) {
-        this.wrapped.set(speed);
+        if (this.shouldSend(OutputCache.SET, speed)) {
+            this.wrapped.set(speed);
+        }
     }
 
     @Override
@@ -229,11 +539,14 @@ public class SmartMotorController implements MotorController {
 
     @Override
     public void disable() {
+        this.invalidateOutput();
         this.wrapped.disable();
     }
 
     @Override
     public void stopMotor() {
-        this.wrapped.stopMotor();
+        if (this.shouldSend(OutputCache.STOP, 0.0)) {
+            this.wrapped.stopMotor();
+        }
     }
 }
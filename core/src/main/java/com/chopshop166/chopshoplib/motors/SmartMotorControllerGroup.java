@@ -59,6 +59,60 @@ public class SmartMotorControllerGroup extends SmartMotorController {
                 .toArray();
     }
 
+    @Override
+    public int getMotorCount() {
+        int count = 0;
+        for (final SmartMotorController motor : this.wrapped) {
+            count += motor.getMotorCount();
+        }
+        return count;
+    }
+
+    @Override
+    public int readCurrentAmps(final double[] out, final int offset) {
+        int index = offset;
+        for (final SmartMotorController motor : this.wrapped) {
+            index += motor.readCurrentAmps(out, index);
+        }
+        return index - offset;
+    }
+
+    @Override
+    public int readTemperatureC(final double[] out, final int offset) {
+        int index = offset;
+        for (final SmartMotorController motor : this.wrapped) {
+            index += motor.readTemperatureC(out, index);
+        }
+        return index - offset;
+    }
+
+    @Override
+    public int readVoltage(final double[] out, final int offset) {
+        int index = offset;
+        for (final SmartMotorController motor : this.wrapped) {
+            index += motor.readVoltage(out, index);
+        }
+        return index - offset;
+    }
+
+    @Override
+    public int readFaultData(final int[] out, final int offset) {
+        int index = offset;
+        for (final SmartMotorController motor : this.wrapped) {
+            index += motor.readFaultData(out, index);
+        }
+        return index - offset;
+    }
+
+    @Override
+    public int readStickyFaultData(final int[] out, final int offset) {
+        int index = offset;
+        for (final SmartMotorController motor : this.wrapped) {
+            index += motor.readStickyFaultData(out, index);
+        }
+        return index - offset;
+    }
+
     @Override
     public String getMotorControllerType() {
         return "Group";
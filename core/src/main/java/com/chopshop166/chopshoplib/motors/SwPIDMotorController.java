@@ -7,29 +7,65 @@ import com.chopshop166.chopshoplib.sensors.IEncoder;
 import com.chopshop166.chopshoplib.sensors.MockEncoder;
 import com.chopshop166.chopshoplib.states.PIDValues;
 import edu.wpi.first.math.controller.PIDController;
-import edu.wpi.first.wpilibj.Watchdog;
 import edu.wpi.first.wpilibj.motorcontrol.MotorController;
 
 /**
  * Use a PID controller with a generic speed controller.
+ *
+ * The PID calculation is run by {@link SwPIDScheduler}, on a control thread at the PID controller's
+ * period. Construct it with gains and a period to run faster than the main loop. The loop starts
+ * with the first setpoint or {@link #enablePID()}, and stops with {@link #disablePID()} or
+ * {@link #close()}.
+ *
+ * Setpoints, gains and tolerances set from the main thread are handed to the control thread, which
+ * applies them at the start of its next calculation. The error and whether it's at the setpoint
+ * are published back after each calculation.
+ *
+ * The measurement is read on the control thread, so it should come from a sensor that can be read
+ * from any thread, like a DIO or analog encoder. CTRE sensors are only refreshed from the main
+ * loop by {@link com.chopshop166.chopshoplib.can.StatusSignalRegistry}, so they aren't supported.
  */
-public class SwPIDMotorController extends SmartMotorController {
+public class SwPIDMotorController extends SmartMotorController implements AutoCloseable {
 
     /** The PID controller for calculations. */
     private final PIDController pid;
     /** The measurement source. */
     private final DoubleSupplier measurement;
-    /** The watchdog to repeatedly trigger the calculation. */
-    private final Watchdog dog = new Watchdog(1.0 / 50.0, this::calculatePID);
-    /** The feedforward coefficient. */
-    private double feedforward;
-    /** The setpoint to move to. */
-    private double setpoint;
+    /** The setpoint and gains for the control thread to use next. */
+    private volatile Target target;
+    /** The target last applied to the PID controller, only used on the control thread. */
+    private Target applied;
     /** Whether the PID controller is enabled. */
-    private boolean pidEnabled = true;
+    private volatile boolean pidEnabled = true;
+    /** Whether the control thread should reset the PID controller. */
+    private volatile boolean resetRequested;
+    /** Whether the loop is registered with the scheduler. */
+    private boolean scheduled;
+    /** Whether the controller was closed. */
+    private boolean closed;
+    /** The measurement read at the start of the current cycle. */
+    private double lastMeasurement;
+    /** The error after the last calculation. */
+    private volatile double error;
+    /** Whether the last calculation was within tolerance of the setpoint. */
+    private volatile boolean atSetpoint;
     /** List of PID Parameters that we can switch between. */
     private final List<PIDValues> configs = new ArrayList<>(4);
 
+    /**
+     * The setpoint, gains and tolerance for the PID controller.
+     *
+     * @param setpoint The setpoint to move to.
+     * @param p The proportional gain.
+     * @param i The integral gain.
+     * @param d The derivative gain.
+     * @param ff The feedforward coefficient.
+     * @param tolerance The error tolerance.
+     */
+    private record Target(double setpoint, double p, double i, double d, double ff,
+            double tolerance) {
+    }
+
     /**
      * Use a PID controller with the position of an encoder.
      *
@@ -55,6 +91,20 @@ public class SwPIDMotorController extends SmartMotorController {
         return position(motor, pid, motor.getEncoder());
     }
 
+    /**
+     * Use a PID controller with the position of an encoder, at a chosen rate.
+     *
+     * @param motor The speed controller to move.
+     * @param gains The gains, tuned for the period.
+     * @param periodSeconds The period of the control loop, e.g. 0.005 for 200Hz.
+     * @return The new PID controller.
+     */
+    public static SwPIDMotorController position(final SmartMotorController motor,
+            final PIDValues gains, final double periodSeconds) {
+        return new SwPIDMotorController(motor, motor.getEncoder(), gains, periodSeconds,
+                motor.getEncoder()::getDistance);
+    }
+
     /**
      * Use a PID controller with the velocity of an encoder.
      *
@@ -80,6 +130,20 @@ public class SwPIDMotorController extends SmartMotorController {
         return velocity(motor, pid, motor.getEncoder());
     }
 
+    /**
+     * Use a PID controller with the velocity of an encoder, at a chosen rate.
+     *
+     * @param motor The speed controller to move.
+     * @param gains The gains, tuned for the period.
+     * @param periodSeconds The period of the control loop, e.g. 0.005 for 200Hz.
+     * @return The new PID controller.
+     */
+    public static SwPIDMotorController velocity(final SmartMotorController motor,
+            final PIDValues gains, final double periodSeconds) {
+        return new SwPIDMotorController(motor, motor.getEncoder(), gains, periodSeconds,
+                motor.getEncoder()::getRate);
+    }
+
     /**
      * Create a PID speed controller using software PID.
      *
@@ -105,31 +169,102 @@ public class SwPIDMotorController extends SmartMotorController {
         super(motor, encoder);
         this.measurement = measurement;
         this.pid = pid;
-        this.dog.suppressTimeoutMessage(true);
-        this.dog.enable();
+        this.target = new Target(pid.getSetpoint(), pid.getP(), pid.getI(), pid.getD(), 0.0,
+                pid.getErrorTolerance());
+    }
+
+    /**
+     * Create a PID speed controller using software PID, at a chosen rate.
+     *
+     * The gains become the default configuration.
+     *
+     * @param motor The motor controller to use.
+     * @param encoder The encoder to use.
+     * @param gains The gains, tuned for the period.
+     * @param periodSeconds The period of the control loop, e.g. 0.005 for 200Hz.
+     * @param measurement The measurement source.
+     */
+    public SwPIDMotorController(final MotorController motor, final IEncoder encoder,
+            final PIDValues gains, final double periodSeconds, final DoubleSupplier measurement) {
+        this(motor, encoder, new PIDController(gains.p(), gains.i(), gains.d(), periodSeconds),
+                measurement);
+        this.addDefaultConfiguration(gains);
     }
 
     /**
      * Get the PID controller.
      *
      * @return The PID controller.
+     * @deprecated The controller is used from the control thread, so every call on it races the
+     *             control loop. Use the methods on this class instead.
      */
+    @Deprecated
     public PIDController getController() {
         return this.pid;
     }
 
-    /** Enable the PID controller. */
+    /**
+     * Get the period of the control loop.
+     *
+     * @return The PID controller's period, in seconds.
+     */
+    public double getPeriod() {
+        return this.pid.getPeriod();
+    }
+
+    /**
+     * Check whether the last calculation was within tolerance of the setpoint.
+     *
+     * @return True if it's at the setpoint.
+     */
+    public boolean atSetpoint() {
+        return this.atSetpoint;
+    }
+
+    /**
+     * Get the error after the last calculation.
+     *
+     * @return The setpoint minus the measurement.
+     */
+    public double getError() {
+        return this.error;
+    }
+
+    /**
+     * Set how close to the setpoint counts as being there.
+     *
+     * @param tolerance The error tolerance.
+     */
+    public void setTolerance(final double tolerance) {
+        final Target current = this.target;
+        this.target = new Target(current.setpoint(), current.p(), current.i(), current.d(),
+                current.ff(), tolerance);
+    }
+
+    /** Clear the PID controller's accumulated error before its next calculation. */
+    public void resetPID() {
+        this.resetRequested = true;
+    }
+
+    /** Enable the PID controller, starting its loop. */
     public void enablePID() {
-        if (!this.pidEnabled) {
-            this.pidEnabled = true;
-            this.dog.enable();
-        }
+        this.pidEnabled = true;
+        this.startLoop();
     }
 
-    /** Disable the PID controller. */
+    /** Disable the PID controller, stopping its loop. */
     public void disablePID() {
         this.pidEnabled = false;
-        this.dog.disable();
+        this.stopLoop();
+        // The control thread's outputs bypass the cache, so it no longer knows the last output
+        this.invalidateOutput();
+    }
+
+    /** Stop the loop for good, so the controller stops driving the motor. */
+    @Override
+    public void close() {
+        this.closed = true;
+        this.disablePID();
     }
 
     /**
@@ -139,8 +274,7 @@ public class SwPIDMotorController extends SmartMotorController {
      */
     public void addDefaultConfiguration(final PIDValues config) {
         this.configs.add(config);
-        this.feedforward = config.ff();
-        this.pid.setPID(config.p(), config.i(), config.d());
+        this.useConfiguration(config);
     }
 
     /**
@@ -154,24 +288,72 @@ public class SwPIDMotorController extends SmartMotorController {
 
     @Override
     public void setSetpoint(final double setPoint) {
-        this.pid.setSetpoint(setPoint);
-        this.setpoint = setPoint;
+        final Target current = this.target;
+        this.target = new Target(setPoint, current.p(), current.i(), current.d(), current.ff(),
+                current.tolerance());
+        this.startLoop();
     }
 
     @Override
     public void setPidSlot(final int slotId) {
-        final var config = this.configs.get(slotId);
-        this.feedforward = config.ff();
-        this.pid.setPID(config.p(), config.i(), config.d());
+        this.useConfiguration(this.configs.get(slotId));
+    }
+
+    /**
+     * Hand a configuration's gains to the control thread.
+     *
+     * @param config The configuration to use.
+     */
+    private void useConfiguration(final PIDValues config) {
+        final Target current = this.target;
+        this.target = new Target(current.setpoint(), config.p(), config.i(), config.d(),
+                config.ff(), current.tolerance());
+    }
+
+    /** Register the loop with the scheduler, if it's enabled and not already running. */
+    /* package */ void startLoop() {
+        if (!this.scheduled && this.pidEnabled && !this.closed) {
+            this.scheduled = true;
+            SwPIDScheduler.register(this);
+        }
+    }
+
+    /** Unregister the loop from the scheduler. */
+    private void stopLoop() {
+        if (this.scheduled) {
+            this.scheduled = false;
+            SwPIDScheduler.unregister(this);
+        }
+    }
+
+    /** Read the measurement for this cycle. */
+    /* package */ void measure() {
+        this.lastMeasurement = this.measurement.getAsDouble();
     }
 
     /** Calculate the PID value, and set the speed controler to the result. */
-    private void calculatePID() {
-        final double ff = this.feedforward * this.setpoint;
-        final double meas = this.measurement.getAsDouble();
-        final double calc = this.pid.calculate(meas);
-        this.set(ff + calc);
-        this.dog.reset();
+    /* package */ void calculate() {
+        final Target next = this.target;
+        if (next != this.applied) {
+            this.pid.setPID(next.p(), next.i(), next.d());
+            this.pid.setSetpoint(next.setpoint());
+            if (next.tolerance() != this.pid.getErrorTolerance()) {
+                this.pid.setTolerance(next.tolerance());
+            }
+            this.applied = next;
+        }
+        if (this.resetRequested) {
+            this.resetRequested = false;
+            this.pid.reset();
+        }
+        if (this.pidEnabled) {
+            final double ff = next.ff() * next.setpoint();
+            final double calc = this.pid.calculate(this.lastMeasurement);
+            // The output cache belongs to the main thread, so skip it
+            this.setUncached(ff + calc);
+            this.error = this.pid.getError();
+            this.atSetpoint = this.pid.atSetpoint();
+        }
     }
 
     @Override
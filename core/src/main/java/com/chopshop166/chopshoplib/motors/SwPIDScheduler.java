@@ -0,0 +1,249 @@
+package com.chopshop166.chopshoplib.motors;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import edu.wpi.first.wpilibj.Notifier;
+import edu.wpi.first.wpilibj.Threads;
+
+/**
+ * Runs every {@link SwPIDMotorController} from shared control threads.
+ *
+ * Controllers are grouped by the period of their PID controller, and each group runs on its own
+ * notifier at that period, so the gains are tuned the same as they would be on the main loop. A
+ * PID controller constructed with the default period runs at 50Hz. To run faster, pick the period
+ * when creating the controller, e.g. {@code SwPIDMotorController.position(motor, gains, 0.005)}
+ * for 200Hz, and every controller with that period shares one thread.
+ *
+ * Each cycle reads every measurement in the group first and then calculates every output, so all
+ * of the loops act on sensor values from the same moment. The time between cycles is tracked, so
+ * the jitter of each group can be checked with {@link #getStats(double)}.
+ */
+public final class SwPIDScheduler {
+
+    /** The real-time priority of the control threads. */
+    private static final int THREAD_PRIORITY = 15;
+
+    /** The running control loops, by period. */
+    private static final Map<Double, ControlLoop> LOOPS = new HashMap<>();
+
+    /**
+     * The timing of a control loop.
+     *
+     * @param cycles The number of cycles measured.
+     * @param meanJitter The mean difference between the time between cycles and the period.
+     * @param maxJitter The largest difference between the time between cycles and the period.
+     * @param maxRunTime How long the slowest cycle took to run.
+     */
+    public record Stats(long cycles, double meanJitter, double maxJitter, double maxRunTime) {
+    }
+
+    private SwPIDScheduler() {
+    }
+
+    /**
+     * Run a controller's loop at its PID controller's period, starting a control thread if needed.
+     *
+     * @param loop The controller.
+     */
+    public static synchronized void register(final SwPIDMotorController loop) {
+        final double period = loop.getPeriod();
+        for (final ControlLoop control : LOOPS.values()) {
+            if (control.contains(loop)) {
+                return;
+            }
+        }
+        final ControlLoop control = LOOPS.computeIfAbsent(period, ControlLoop::new);
+        control.add(loop);
+        control.start();
+    }
+
+    /**
+     * Stop running a controller's loop, stopping its control thread if nothing else uses it.
+     *
+     * @param loop The controller.
+     */
+    public static synchronized void unregister(final SwPIDMotorController loop) {
+        final Iterator<ControlLoop> iter = LOOPS.values().iterator();
+        while (iter.hasNext()) {
+            final ControlLoop control = iter.next();
+            control.remove(loop);
+            if (control.isEmpty()) {
+                control.stop();
+                iter.remove();
+            }
+        }
+    }
+
+    /**
+     * Get the timing of the loops running at a period since the stats were last reset.
+     *
+     * @param period The period of the loops, in seconds.
+     * @return The timing stats, or empty stats if nothing runs at that period.
+     */
+    public static synchronized Stats getStats(final double period) {
+        final ControlLoop control = LOOPS.get(period);
+        if (control == null) {
+            return new Stats(0, 0.0, 0.0, 0.0);
+        }
+        return control.getStats();
+    }
+
+    /** Start measuring the timing of every control loop again. */
+    public static synchronized void resetStats() {
+        for (final ControlLoop control : LOOPS.values()) {
+            control.resetStats();
+        }
+    }
+
+    /** The controllers that run at one period, and the notifier that runs them. */
+    /* package */ static final class ControlLoop {
+        /** The period of the loop, in seconds. */
+        private final double period;
+        /** The registered controllers. */
+        private volatile SwPIDMotorController[] loops = new SwPIDMotorController[0];
+        /** The notifier that runs the loop, once started. */
+        private Notifier notifier;
+        /** Whether the control thread's priority has been raised. */
+        private boolean prioritySet;
+        /** When the last cycle started, or {@link Long#MIN_VALUE} before the first cycle. */
+        private long lastStart = Long.MIN_VALUE;
+        /** The number of cycles measured. */
+        private long cycles;
+        /** The total jitter of every cycle, in nanoseconds. */
+        private long totalJitter;
+        /** The largest jitter of any cycle, in nanoseconds. */
+        private long maxJitter;
+        /** How long the slowest cycle took to run, in nanoseconds. */
+        private long maxRunTime;
+
+        /**
+         * Create a loop that isn't running yet.
+         *
+         * @param period The period of the loop, in seconds.
+         */
+        /* package */ ControlLoop(final double period) {
+            this.period = period;
+        }
+
+        /**
+         * Check whether a controller runs in this loop.
+         *
+         * @param loop The controller.
+         * @return True if it's registered.
+         */
+        /* package */ boolean contains(final SwPIDMotorController loop) {
+            return Arrays.asList(this.loops).contains(loop);
+        }
+
+        /**
+         * Check whether nothing runs in this loop.
+         *
+         * @return True if no controllers are registered.
+         */
+        /* package */ boolean isEmpty() {
+            return this.loops.length == 0;
+        }
+
+        /**
+         * Run a controller in this loop.
+         *
+         * @param loop The controller.
+         */
+        /* package */ synchronized void add(final SwPIDMotorController loop) {
+            final SwPIDMotorController[] updated = Arrays.copyOf(this.loops, this.loops.length + 1);
+            updated[this.loops.length] = loop;
+            this.loops = updated;
+        }
+
+        /**
+         * Stop running a controller in this loop.
+         *
+         * @param loop The controller.
+         */
+        /* package */ synchronized void remove(final SwPIDMotorController loop) {
+            this.loops = Arrays.stream(this.loops).filter(l -> l != loop)
+                    .toArray(SwPIDMotorController[]::new);
+        }
+
+        /** Start the notifier, if it isn't already running. */
+        /* package */ synchronized void start() {
+            if (this.notifier == null) {
+                this.notifier = new Notifier(this::runOnControlThread);
+                this.notifier.setName("ChopShopLib SwPID " + this.period + "s");
+                this.notifier.startPeriodic(this.period);
+            }
+        }
+
+        /** Stop the notifier. */
+        /* package */ synchronized void stop() {
+            if (this.notifier != null) {
+                this.notifier.close();
+                this.notifier = null;
+            }
+        }
+
+        /** Raise the control thread's priority the first time, then run a cycle. */
+        private void runOnControlThread() {
+            if (!this.prioritySet) {
+                Threads.setCurrentThreadPriority(true, THREAD_PRIORITY);
+                this.prioritySet = true;
+            }
+            this.runCycle();
+        }
+
+        /** Run one cycle of every registered controller. */
+        /* package */ void runCycle() {
+            final long start = System.nanoTime();
+            final SwPIDMotorController[] current = this.loops;
+            for (final SwPIDMotorController loop : current) {
+                loop.measure();
+            }
+            for (final SwPIDMotorController loop : current) {
+                loop.calculate();
+            }
+            this.recordCycle(start, System.nanoTime() - start);
+        }
+
+        /**
+         * Record the timing of a cycle.
+         *
+         * @param start When the cycle started, in nanoseconds.
+         * @param runTime How long the cycle took to run, in nanoseconds.
+         */
+        /* package */ synchronized void recordCycle(final long start, final long runTime) {
+            if (this.lastStart != Long.MIN_VALUE) {
+                final long expected = (long) (this.period * TimeUnit.SECONDS.toNanos(1));
+                final long jitter = Math.abs(start - this.lastStart - expected);
+                this.cycles++;
+                this.totalJitter += jitter;
+                this.maxJitter = Math.max(this.maxJitter, jitter);
+                this.maxRunTime = Math.max(this.maxRunTime, runTime);
+            }
+            this.lastStart = start;
+        }
+
+        /**
+         * Get the timing of the loop since the stats were last reset.
+         *
+         * @return The timing stats.
+         */
+        /* package */ synchronized Stats getStats() {
+            final double nanosPerSecond = TimeUnit.SECONDS.toNanos(1);
+            final double mean = this.cycles == 0 ? 0.0 : this.totalJitter / (double) this.cycles;
+            return new Stats(this.cycles, mean / nanosPerSecond, this.maxJitter / nanosPerSecond,
+                    this.maxRunTime / nanosPerSecond);
+        }
+
+        /** Start measuring the timing of the loop again. */
+        /* package */ synchronized void resetStats() {
+            this.lastStart = Long.MIN_VALUE;
+            this.cycles = 0;
+            this.totalJitter = 0;
+            this.maxJitter = 0;
+            this.maxRunTime = 0;
+        }
+    }
+}
@@ -1,15 +1,25 @@
 package com.chopshop166.chopshoplib.sensors;
 
+import com.chopshop166.chopshoplib.can.StatusSignalRegistry;
+import com.ctre.phoenix6.StatusSignal;
 import com.ctre.phoenix6.hardware.CANcoder;
 import edu.wpi.first.units.Units;
+import edu.wpi.first.units.measure.Angle;
+import edu.wpi.first.units.measure.AngularVelocity;
 
 /**
  * An Encoder on the CAN bus.
+ *
+ * The signals are refreshed by {@link StatusSignalRegistry}.
  */
 public class CtreEncoder implements IEncoder {
 
     /** Reference to the base encoder. */
     private final CANcoder enc;
+    /** Signal for velocity. */
+    private final StatusSignal<AngularVelocity> velocitySignal;
+    /** Signal for absolute position. */
+    private final StatusSignal<Angle> absolutePositionSignal;
 
     /**
      * Construct the encoder from the raw object.
@@ -18,6 +28,9 @@ public class CtreEncoder implements IEncoder {
      */
     public CtreEncoder(final CANcoder enc) {
         this.enc = enc;
+        this.velocitySignal = enc.getVelocity();
+        this.absolutePositionSignal = enc.getAbsolutePosition();
+        StatusSignalRegistry.register(enc, this.velocitySignal, this.absolutePositionSignal);
     }
 
     /**
@@ -37,12 +50,16 @@ public class CtreEncoder implements IEncoder {
 
     @Override
     public double getRate() {
-        return Units.RotationsPerSecond.of(this.enc.getVelocity().getValueAsDouble()).in(Units.DegreesPerSecond);
+        StatusSignalRegistry.refreshIfStale();
+        return Units.RotationsPerSecond.of(this.velocitySignal.getValueAsDouble())
+                .in(Units.DegreesPerSecond);
     }
 
     @Override
     public double getAbsolutePosition() {
-        return Units.Rotations.of(this.enc.getAbsolutePosition().getValueAsDouble()).in(Units.Degrees);
+        StatusSignalRegistry.refreshIfStale();
+        return Units.Rotations.of(this.absolutePositionSignal.getValueAsDouble())
+                .in(Units.Degrees);
     }
 
     @Override
@@ -1,6 +1,7 @@
 package com.chopshop166.chopshoplib.sensors;
 
-import com.revrobotics.PersistMode;
+import java.util.List;
+import com.chopshop166.chopshoplib.can.DeviceConfigManager;
 import com.revrobotics.RelativeEncoder;
 import com.revrobotics.ResetMode;
 import com.revrobotics.spark.SparkMax;
@@ -47,8 +48,9 @@ public class SparkMaxEncoder implements IEncoder {
         final var config = new SparkMaxConfig();
         config.encoder.positionConversionFactor(positionScaleFactor);
         config.encoder.velocityConversionFactor(velocityScaleFactor);
-        this.motor.configure(config, ResetMode.kNoResetSafeParameters,
-                PersistMode.kPersistParameters);
+        DeviceConfigManager.configureSpark(this.motor, "encoder.conversionFactors",
+                List.of(positionScaleFactor, velocityScaleFactor), config,
+                ResetMode.kNoResetSafeParameters);
     }
 
     /**
@@ -1,5 +1,6 @@
 package com.chopshop166.chopshoplib.sensors;
 
+import com.chopshop166.chopshoplib.can.StatusSignalRegistry;
 import com.ctre.phoenix6.StatusSignal;
 import com.ctre.phoenix6.hardware.TalonFX;
 import edu.wpi.first.units.measure.Angle;
@@ -7,6 +8,8 @@ import edu.wpi.first.units.measure.AngularVelocity;
 
 /**
  * An Encoder attached to the Talon SRX.
+ *
+ * The signals are refreshed by {@link StatusSignalRegistry}.
  */
 public class TalonFXEncoder implements IEncoder {
 
@@ -26,6 +29,7 @@ public class TalonFXEncoder implements IEncoder {
         this.talon = talon;
         this.positionSignal = talon.getPosition();
         this.velocitySignal = talon.getVelocity();
+        StatusSignalRegistry.register(talon, this.positionSignal, this.velocitySignal);
     }
 
     /**
@@ -44,6 +48,7 @@ public class TalonFXEncoder implements IEncoder {
      */
     @Override
     public double getDistance() {
+        StatusSignalRegistry.refreshIfStale();
         return this.positionSignal.getValueAsDouble();
     }
 
@@ -54,6 +59,7 @@ public class TalonFXEncoder implements IEncoder {
      */
     @Override
     public double getRate() {
+        StatusSignalRegistry.refreshIfStale();
         return this.velocitySignal.getValueAsDouble();
     }
 
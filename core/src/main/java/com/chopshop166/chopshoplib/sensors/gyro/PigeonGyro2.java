@@ -1,18 +1,36 @@
 package com.chopshop166.chopshoplib.sensors.gyro;
 
+import com.chopshop166.chopshoplib.can.StatusSignalRegistry;
 import com.ctre.phoenix6.CANBus;
+import com.ctre.phoenix6.StatusSignal;
 import com.ctre.phoenix6.hardware.Pigeon2;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Rotation3d;
 import edu.wpi.first.math.util.Units;
+import edu.wpi.first.units.measure.Angle;
+import edu.wpi.first.units.measure.AngularVelocity;
 
 /**
  * Gyro Base wrapper for the Pigeon IMU
+ *
+ * The signals are refreshed by {@link StatusSignalRegistry}.
  */
 public class PigeonGyro2 implements SmartGyro {
 
     /** The wrapped object. */
     private final Pigeon2 gyro;
+    /** Signal for yaw. */
+    private final StatusSignal<Angle> yaw;
+    /** Signal for pitch. */
+    private final StatusSignal<Angle> pitch;
+    /** Signal for roll. */
+    private final StatusSignal<Angle> roll;
+    /** Signal for angular velocity around the X axis. */
+    private final StatusSignal<AngularVelocity> velocityX;
+    /** Signal for angular velocity around the Y axis. */
+    private final StatusSignal<AngularVelocity> velocityY;
+    /** Signal for angular velocity around the Z axis. */
+    private final StatusSignal<AngularVelocity> velocityZ;
 
     /**
      * Create the wrapper.
@@ -22,6 +40,14 @@ public class PigeonGyro2 implements SmartGyro {
     public PigeonGyro2(final Pigeon2 gyro) {
         super();
         this.gyro = gyro;
+        this.yaw = gyro.getYaw();
+        this.pitch = gyro.getPitch();
+        this.roll = gyro.getRoll();
+        this.velocityX = gyro.getAngularVelocityXWorld();
+        this.velocityY = gyro.getAngularVelocityYWorld();
+        this.velocityZ = gyro.getAngularVelocityZWorld();
+        StatusSignalRegistry.register(gyro, this.yaw, this.pitch, this.roll, this.velocityX,
+                this.velocityY, this.velocityZ);
     }
 
     /**
@@ -66,7 +92,8 @@ public class PigeonGyro2 implements SmartGyro {
      */
     @Override
     public double getRate() {
-        return -this.gyro.getAngularVelocityZWorld().getValueAsDouble();
+        StatusSignalRegistry.refreshIfStale();
+        return -this.velocityZ.getValueAsDouble();
     }
 
     /**
@@ -74,7 +101,8 @@ public class PigeonGyro2 implements SmartGyro {
      */
     @Override
     public double getAngle() {
-        return -this.gyro.getYaw().getValueAsDouble();
+        StatusSignalRegistry.refreshIfStale();
+        return -this.yaw.getValueAsDouble();
     }
 
     @Override
@@ -84,21 +112,24 @@ public class PigeonGyro2 implements SmartGyro {
 
     @Override
     public Rotation2d getRotation2d() {
-        return this.gyro.getRotation2d();
+        StatusSignalRegistry.refreshIfStale();
+        return Rotation2d.fromDegrees(this.yaw.getValueAsDouble());
     }
 
     @Override
     public Rotation3d getRotation3d() {
-        return new Rotation3d(Units.degreesToRadians(this.gyro.getRoll().getValueAsDouble()),
-                Units.degreesToRadians(this.gyro.getPitch().getValueAsDouble()),
-                Units.degreesToRadians(this.gyro.getYaw().getValueAsDouble()));
+        StatusSignalRegistry.refreshIfStale();
+        return new Rotation3d(Units.degreesToRadians(this.roll.getValueAsDouble()),
+                Units.degreesToRadians(this.pitch.getValueAsDouble()),
+                Units.degreesToRadians(this.yaw.getValueAsDouble()));
     }
 
     @Override
     public Rotation3d getRotationalVelocity() {
+        StatusSignalRegistry.refreshIfStale();
         return new Rotation3d(
-                Units.degreesToRadians(this.gyro.getAngularVelocityXWorld().getValueAsDouble()),
-                Units.degreesToRadians(this.gyro.getAngularVelocityYWorld().getValueAsDouble()),
-                Units.degreesToRadians(this.gyro.getAngularVelocityZWorld().getValueAsDouble()));
+                Units.degreesToRadians(this.velocityX.getValueAsDouble()),
+                Units.degreesToRadians(this.velocityY.getValueAsDouble()),
+                Units.degreesToRadians(this.velocityZ.getValueAsDouble()));
     }
 }
@@ -0,0 +1,79 @@
+package com.chopshop166.chopshoplib.can;
+
+import java.util.Properties;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/** Tests for skipping configuration that was already applied. */
+final class DeviceConfigManagerTest {
+
+    /** The number of times a fake device was configured. */
+    private int sent;
+
+    /**
+     * Configure the fake device.
+     *
+     * @return True, since the fake device always succeeds.
+     */
+    private boolean send() {
+        this.sent++;
+        return true;
+    }
+
+    /** Check that a parameter is only sent when its value changes. */
+    @Test
+    /* package */ void testApplySkipsUnchanged() {
+        final Object device = new Object();
+        Assertions.assertTrue(DeviceConfigManager.apply(device, "gain", 1.0, this::send),
+                "First value is sent");
+        Assertions.assertFalse(DeviceConfigManager.apply(device, "gain", 1.0, this::send),
+                "Same value is skipped");
+        Assertions.assertTrue(DeviceConfigManager.apply(device, "gain", 2.0, this::send),
+                "New value is sent");
+        Assertions.assertTrue(
+                DeviceConfigManager.apply(device, "limits", new double[] {1.0}, this::send),
+                "Other parameters are separate");
+        Assertions.assertFalse(
+                DeviceConfigManager.apply(device, "limits", new double[] {1.0}, this::send),
+                "Arrays are compared by value");
+        Assertions.assertEquals(3, this.sent, "Only changes reach the device");
+
+        DeviceConfigManager.forget(device);
+        Assertions.assertTrue(DeviceConfigManager.apply(device, "gain", 2.0, this::send),
+                "Forgotten devices are sent everything again");
+    }
+
+    /** Check that a resetting parameter forgets everything else applied to the device. */
+    @Test
+    /* package */ void testResetClearsState() {
+        final Object device = new Object();
+        DeviceConfigManager.apply(device, "gain", 1.0, this::send);
+        DeviceConfigManager.apply(device, "base", "factory", true, this::send);
+        Assertions.assertTrue(DeviceConfigManager.apply(device, "gain", 1.0, this::send),
+                "Parameters are sent again after a reset");
+        Assertions.assertFalse(
+                DeviceConfigManager.apply(device, "base", "factory", true, this::send),
+                "The resetting parameter itself is remembered");
+    }
+
+    /** Check that parameters are only persisted when they differ from the persisted record. */
+    @Test
+    /* package */ void testPersistedImage() {
+        final Properties persisted = new Properties();
+        Assertions.assertTrue(
+                DeviceConfigManager.persistIfChanged(persisted, "spark.1.fw5", "a=1;", this::send),
+                "New parameters are persisted");
+        Assertions.assertFalse(
+                DeviceConfigManager.persistIfChanged(persisted, "spark.1.fw5", "a=1;", this::send),
+                "Same parameters are skipped");
+        Assertions.assertTrue(
+                DeviceConfigManager.persistIfChanged(persisted, "spark.1.fw5", "a=2;", this::send),
+                "Changed parameters are persisted");
+        Assertions.assertTrue(
+                DeviceConfigManager.persistIfChanged(persisted, "spark.1.fw6", "a=2;", this::send),
+                "New firmware is persisted again");
+        Assertions.assertEquals(3, this.sent, "Only changes are written to flash");
+        Assertions.assertEquals("a=2;", persisted.getProperty("spark.1.fw5"),
+                "The record holds the last persisted parameters");
+    }
+}
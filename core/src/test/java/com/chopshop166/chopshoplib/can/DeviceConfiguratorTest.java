@@ -0,0 +1,128 @@
+package com.chopshop166.chopshoplib.can;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/** Tests for configuring devices together at startup. */
+final class DeviceConfiguratorTest {
+
+    /** Check that tasks keep their order on each device, and runAll waits for them. */
+    @Test
+    /* package */ void testTasksKeepOrder() {
+        final Object first = new Object();
+        final Object second = new Object();
+        final List<String> ran = Collections.synchronizedList(new ArrayList<>());
+
+        DeviceConfigurator.collect();
+        DeviceConfigurator.configure(first, "a", () -> {
+            sleep(20);
+            return ran.add("first a");
+        });
+        DeviceConfigurator.configure(second, "a", () -> ran.add("second a"));
+        DeviceConfigurator.configure(first, "b", () -> ran.add("first b"));
+
+        final List<DeviceConfigurator.Result> results = DeviceConfigurator.runAll();
+        Assertions.assertEquals(2, results.size(), "There is one result per device");
+        Assertions.assertEquals(3, ran.size(), "Every task ran before runAll returned");
+        Assertions.assertTrue(ran.indexOf("first a") < ran.indexOf("first b"),
+                "Tasks on one device keep their order");
+        Assertions.assertFalse(DeviceConfigurator.isCollecting(), "Collecting stops");
+
+        DeviceConfigurator.configure(first, "c", () -> ran.add("first c"));
+        Assertions.assertEquals("first c", ran.get(3), "Tasks run immediately afterwards");
+    }
+
+    /** Check that collected tasks start without waiting for runAll. */
+    @Test
+    /* package */ void testTasksRunBeforeRunAll() throws InterruptedException {
+        final CountDownLatch ran = new CountDownLatch(1);
+        DeviceConfigurator.collect();
+        DeviceConfigurator.configure(new Object(), "a", () -> {
+            ran.countDown();
+            return true;
+        });
+        Assertions.assertTrue(ran.await(5, TimeUnit.SECONDS),
+                "Tasks run in the background while collecting");
+        DeviceConfigurator.runAll();
+    }
+
+    /** Check that awaiting a device waits for its queued tasks. */
+    @Test
+    /* package */ void testAwaitDevice() {
+        final Object device = new Object();
+        final AtomicBoolean configured = new AtomicBoolean();
+        DeviceConfigurator.collect();
+        DeviceConfigurator.configure(device, "slow", () -> {
+            sleep(50);
+            configured.set(true);
+            return true;
+        });
+        DeviceConfigurator.await(device);
+        Assertions.assertTrue(configured.get(), "Direct calls happen after the queued tasks");
+        DeviceConfigurator.runAll();
+    }
+
+    /** Check that a task can follow a device that timed out, without blocking the caller. */
+    @Test
+    /* package */ void testRunAfterPending() throws InterruptedException {
+        final Object device = new Object();
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch followed = new CountDownLatch(1);
+        DeviceConfigurator.setTimeout(0.0);
+        try {
+            DeviceConfigurator.collect();
+            DeviceConfigurator.configure(device, "stuck", () -> {
+                await(release);
+                return true;
+            });
+            DeviceConfigurator.runAll();
+            Assertions.assertTrue(DeviceConfigurator.runAfterPending(device, "after", () -> {
+                followed.countDown();
+                return true;
+            }), "A device that timed out still has tasks pending");
+            Assertions.assertEquals(1, followed.getCount(), "The task waits for the device");
+
+            release.countDown();
+            Assertions.assertTrue(followed.await(5, TimeUnit.SECONDS),
+                    "The task runs once the device is done");
+            DeviceConfigurator.await(device);
+            Assertions.assertFalse(DeviceConfigurator.runAfterPending(device, "none", () -> true),
+                    "Nothing is queued once the device is done");
+        } finally {
+            release.countDown();
+            DeviceConfigurator.setTimeout(DeviceConfigurator.DEFAULT_TIMEOUT);
+        }
+    }
+
+    /**
+     * Wait for a latch in a task.
+     *
+     * @param latch The latch.
+     */
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Sleep in a task, to make it slower than the tasks after it.
+     *
+     * @param millis The time to sleep.
+     */
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
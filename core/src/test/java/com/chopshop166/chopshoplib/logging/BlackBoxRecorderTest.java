@@ -0,0 +1,116 @@
+package com.chopshop166.chopshoplib.logging;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import edu.wpi.first.util.datalog.DataLogReader;
+import edu.wpi.first.util.datalog.DataLogRecord;
+
+/** Tests for keeping the last few cycles and writing them out. */
+final class BlackBoxRecorderTest {
+
+    /** The directory dumps are written into. */
+    @TempDir
+    /* package */ Path directory;
+
+    /** A data object with a value and an array that starts out empty. */
+    public static class RecordedData extends DataWrapper {
+        /** A value. */
+        public double value;
+        /** An array that gets filled in after registering. */
+        public double[] values;
+    }
+
+    /** Check that only the newest frames are kept once the ring wraps. */
+    @Test
+    /* package */ void testRingWraps() throws IOException, InterruptedException {
+        final RecordedData data = new RecordedData();
+        final BlackBoxRecorder recorder =
+                new BlackBoxRecorder(3, this.directory.toString()).register("Data", data);
+        for (int i = 1; i <= 5; i++) {
+            data.value = i;
+            recorder.record(i);
+        }
+        Assertions.assertTrue(recorder.dump("wrap"), "Dump starts");
+
+        final Map<String, List<Double>> values = this.readDump(recorder);
+        Assertions.assertEquals(List.of(3.0, 4.0, 5.0), values.get("Data/value"),
+                "Only the newest frames are kept, oldest first");
+    }
+
+    /** Check that a trigger writes a file with arrays sized after registering. */
+    @Test
+    /* package */ void testTriggerDumpsArrays() throws IOException, InterruptedException {
+        final RecordedData data = new RecordedData();
+        final boolean[] fault = new boolean[1];
+        final BlackBoxRecorder recorder = new BlackBoxRecorder(10, this.directory.toString())
+                .register("Data", data).addTrigger("fault", () -> fault[0]);
+        recorder.record(1);
+        data.values = new double[] {1.0, 2.0};
+        // Seeing values for the first time resizes the ring before the next frame
+        recorder.record(2);
+        data.values[1] = 3.0;
+        recorder.record(3);
+        Assertions.assertFalse(recorder.isDumping(), "Nothing is written without a trigger");
+
+        fault[0] = true;
+        recorder.record(4);
+        Assertions.assertTrue(recorder.isDumping(), "Trigger starts a dump");
+
+        final Map<String, List<Double>> values = this.readDump(recorder);
+        Assertions.assertEquals(List.of(1.0, 3.0, 1.0, 3.0), values.get("Data/values"),
+                "Array is recorded once it has values");
+        Assertions.assertEquals(2, values.get("Data/value").size(),
+                "Frames before resizing are dropped");
+        Assertions.assertTrue(this.directory.toFile().list()[0].contains("fault"),
+                "File is named after the trigger");
+    }
+
+    /**
+     * Wait for the dump to be written, then read every double back.
+     *
+     * @param recorder The recorder writing the dump.
+     * @return The values of each entry, in the order they were written.
+     * @throws IOException If the file can't be read.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    private Map<String, List<Double>> readDump(final BlackBoxRecorder recorder)
+            throws IOException, InterruptedException {
+        for (int i = 0; i < 200 && recorder.isDumping(); i++) {
+            Thread.sleep(10);
+        }
+        Assertions.assertFalse(recorder.isDumping(), "Dump finishes");
+        final File[] files = this.directory.toFile().listFiles();
+        Assertions.assertEquals(1, files.length, "One file is written");
+        final DataLogReader reader = new DataLogReader(files[0].getPath());
+        Assertions.assertTrue(reader.isValid(), "File is a valid log");
+        final Map<Integer, String> names = new HashMap<>();
+        final Map<Integer, String> types = new HashMap<>();
+        final Map<String, List<Double>> values = new HashMap<>();
+        for (final DataLogRecord record : reader) {
+            if (record.isStart()) {
+                final DataLogRecord.StartRecordData start = record.getStartData();
+                names.put(start.entry, start.name);
+                types.put(start.entry, start.type);
+            } else if (!record.isControl()) {
+                final String name = names.get(record.getEntry());
+                final List<Double> list = values.computeIfAbsent(name, k -> new ArrayList<>());
+                if ("double[]".equals(types.get(record.getEntry()))) {
+                    for (final double value : record.getDoubleArray()) {
+                        list.add(value);
+                    }
+                } else if ("double".equals(types.get(record.getEntry()))) {
+                    list.add(record.getDouble());
+                }
+            }
+        }
+        return values;
+    }
+}
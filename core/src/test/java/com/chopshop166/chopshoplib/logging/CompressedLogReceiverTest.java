@@ -0,0 +1,71 @@
+package com.chopshop166.chopshoplib.logging;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.littletonrobotics.junction.LogTable;
+import org.littletonrobotics.junction.wpilog.WPILOGReader;
+
+/** Tests for writing compressed logs. */
+final class CompressedLogReceiverTest {
+
+    /** The directory logs are written into. */
+    @TempDir
+    /* package */ Path directory;
+
+    /** Check that a compressed log can be decompressed and replayed. */
+    @Test
+    /* package */ void testRoundTrip() throws IOException {
+        final Path compressed = this.directory.resolve("test.wpilog.gz");
+        final CompressedLogReceiver receiver = new CompressedLogReceiver(compressed.toString());
+        receiver.start();
+        for (int i = 1; i <= 3; i++) {
+            final LogTable table = new LogTable(i * 20_000L);
+            table.put("Value", i * 1.5);
+            table.put("Name", "arm");
+            receiver.putTable(table);
+        }
+        receiver.end();
+        Assertions.assertEquals(0, receiver.getDroppedFrames(), "Nothing is dropped");
+
+        final Path decompressed = this.directory.resolve("test.wpilog");
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(compressed));
+                OutputStream out = Files.newOutputStream(decompressed)) {
+            in.transferTo(out);
+        }
+
+        final WPILOGReader reader = new WPILOGReader(decompressed.toString());
+        reader.start();
+        final LogTable table = new LogTable(0);
+        final List<Double> values = new ArrayList<>();
+        while (reader.updateTable(table)) {
+            final double value = table.get("Value", 0.0);
+            if (value != 0.0 && (values.isEmpty() || values.get(values.size() - 1) != value)) {
+                values.add(value);
+            }
+        }
+        reader.end();
+        Assertions.assertEquals(List.of(1.5, 3.0, 4.5), values, "Every cycle is read back");
+        Assertions.assertEquals("arm", table.get("Name", ""), "Unchanged values are kept");
+    }
+
+    /** Check that tables are dropped and counted once the queue is full. */
+    @Test
+    /* package */ void testDroppedWhenFull() {
+        final CompressedLogReceiver receiver =
+                new CompressedLogReceiver(this.directory.resolve("full.wpilog.gz").toString(), 2);
+        // Nothing drains the queue until the receiver is started
+        for (int i = 0; i < 5; i++) {
+            receiver.putTable(new LogTable(i));
+        }
+        Assertions.assertEquals(3, receiver.getDroppedFrames(), "Tables past the capacity drop");
+    }
+}
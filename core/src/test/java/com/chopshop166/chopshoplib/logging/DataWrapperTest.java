@@ -0,0 +1,227 @@
+package com.chopshop166.chopshoplib.logging;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.littletonrobotics.junction.LogTable;
+import com.chopshop166.chopshoplib.states.OpenClose;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+
+/** Tests for logging data objects. */
+final class DataWrapperTest {
+
+    /** A data object that goes through the reflective path. */
+    public static class TestData extends DataWrapper {
+        /** A renamed field. */
+        @LogName("Value")
+        public double value;
+        /** An array field. */
+        public int[] counts = new int[0];
+        /** A field that isn't logged. */
+        @NoLog
+        public double hidden;
+        /** A nested data object. */
+        public final NestedData nested = new NestedData();
+    }
+
+    /** A data object nested in another one. */
+    public static class NestedData extends DataWrapper {
+        /** A boolean field. */
+        public boolean flag;
+    }
+
+    /** A nested data object with its own logging. */
+    public static class CustomNestedData extends NestedData {
+        @Override
+        public void toLog(final LogTable table) {
+            table.put("custom", true);
+        }
+    }
+
+    /** A data object whose nested object can be replaced. */
+    public static class HolderData extends DataWrapper {
+        /** A nested data object. */
+        public NestedData nested = new NestedData();
+    }
+
+    /** A data object with a field that isn't logged every cycle. */
+    public static class SlowData extends DataWrapper {
+        /** A field logged every other cycle. */
+        @LogEvery(2)
+        public double slow;
+        /** A field only logged when it changes. */
+        @LogOnce
+        public String kind = "A";
+    }
+
+    /** A data object whose fields can be null. */
+    public static class NullableData extends DataWrapper {
+        /** An enum field. */
+        public OpenClose state;
+        /** A nested data object. */
+        public NestedData nested;
+        /** A primitive field. */
+        public double value;
+    }
+
+    /** A data object with only immutable objects. */
+    public static class ImmutableData extends DataWrapper {
+        /** An immutable struct. */
+        public Pose2d pose = Pose2d.kZero;
+        /** An array of immutable structs. */
+        public Pose2d[] poses = new Pose2d[0];
+    }
+
+    /** A data object with an object that can be changed in place. */
+    public static class MutableData extends DataWrapper {
+        /** A mutable struct. */
+        public ChassisSpeeds speeds = new ChassisSpeeds();
+    }
+
+    /** Check that every instance of a class shares one schema. */
+    @Test
+    /* package */ void testSchemaIsShared() {
+        Assertions.assertSame(LogSchema.of(TestData.class), LogSchema.of(TestData.class),
+                "Schema is resolved once per class");
+    }
+
+    /** Check that data written to a table can be read back. */
+    @Test
+    /* package */ void testRoundTrip() {
+        final TestData original = new TestData();
+        original.value = 4.5;
+        original.counts = new int[] {1, 2, 3};
+        original.hidden = 7.0;
+        original.nested.flag = true;
+
+        final LogTable table = new LogTable(0);
+        original.toLog(table);
+        Assertions.assertEquals(4.5, table.get("Value", 0.0), "Uses the logged name");
+
+        final TestData replayed = new TestData();
+        replayed.fromLog(table);
+        Assertions.assertEquals(4.5, replayed.value, "Primitive is replayed");
+        Assertions.assertArrayEquals(new int[] {1, 2, 3}, replayed.counts, "Array is replayed");
+        Assertions.assertEquals(0.0, replayed.hidden, "NoLog field is untouched");
+        Assertions.assertTrue(replayed.nested.flag, "Nested data is replayed");
+    }
+
+    /** Check that delta logging only writes fields that changed. */
+    @Test
+    /* package */ void testDeltaLogging() {
+        final TestData data = new TestData();
+        final LogTable table = new LogTable(0);
+        DataWrapper.setDeltaLogging(true);
+        try {
+            data.value = 1.0;
+            data.toLog(table);
+            // Overwrite the table, so we can tell whether the next write happened
+            table.put("Value", -1.0);
+            data.toLog(table);
+            Assertions.assertEquals(-1.0, table.get("Value", 0.0), "Unchanged field is skipped");
+            data.value = 2.0;
+            data.toLog(table);
+            Assertions.assertEquals(2.0, table.get("Value", 0.0), "Changed field is written");
+        } finally {
+            DataWrapper.setDeltaLogging(false);
+        }
+    }
+
+    /** Check that a snapshot copies every logged field and only replaces changed arrays. */
+    @Test
+    /* package */ void testSnapshotCopy() throws Throwable {
+        final SnapshotCopier copier = SnapshotCopier.of(TestData.class);
+        Assertions.assertTrue(copier.isSupported(), "Data objects can be copied");
+
+        final TestData live = new TestData();
+        live.value = 3.0;
+        live.counts = new int[] {4, 5};
+        live.hidden = 6.0;
+        live.nested.flag = true;
+        final TestData back = (TestData) copier.newInstance();
+        copier.copy(live, back);
+        Assertions.assertEquals(3.0, back.value, "Primitive is copied");
+        Assertions.assertArrayEquals(new int[] {4, 5}, back.counts, "Array is copied");
+        Assertions.assertNotSame(live.counts, back.counts, "Array is not shared");
+        Assertions.assertEquals(0.0, back.hidden, "NoLog field is skipped");
+        Assertions.assertTrue(back.nested.flag, "Nested data is copied");
+
+        final int[] copied = back.counts;
+        copier.copy(live, back);
+        Assertions.assertSame(copied, back.counts, "Unchanged array is kept");
+    }
+
+    /** Check that decimated fields are only written on their cycles. */
+    @Test
+    /* package */ void testLogEvery() {
+        final SlowData data = new SlowData();
+        final LogTable table = new LogTable(0);
+        data.slow = 1.0;
+        data.toLog(table);
+        Assertions.assertEquals(1.0, table.get("slow", 0.0), "Written on the first cycle");
+        data.slow = 2.0;
+        data.toLog(table);
+        Assertions.assertEquals(1.0, table.get("slow", 0.0), "Skipped on the next cycle");
+        data.toLog(table);
+        Assertions.assertEquals(2.0, table.get("slow", 0.0), "Written again after two cycles");
+    }
+
+    /** Check that nested objects are flattened unless they're a subclass with its own logging. */
+    @Test
+    /* package */ void testFlattenedNesting() {
+        final HolderData data = new HolderData();
+        data.nested.flag = true;
+        final LogTable table = new LogTable(0);
+        data.toLog(table);
+        Assertions.assertTrue(table.get("nested/flag", false), "Nested field uses the full key");
+
+        data.nested = new CustomNestedData();
+        data.toLog(table);
+        Assertions.assertTrue(table.get("nested/custom", false), "Subclass logs itself");
+    }
+
+    /** Check that constant fields are only written when they change. */
+    @Test
+    /* package */ void testLogOnce() {
+        final SlowData data = new SlowData();
+        final LogTable table = new LogTable(0);
+        data.toLog(table);
+        Assertions.assertEquals("A", table.get("kind", ""), "Written the first time");
+        table.put("kind", "overwritten");
+        data.toLog(table);
+        Assertions.assertEquals("overwritten", table.get("kind", ""), "Not written again");
+        data.kind = "B";
+        data.toLog(table);
+        Assertions.assertEquals("B", table.get("kind", ""), "Written when it changes");
+
+        final SlowData replayed = new SlowData();
+        replayed.fromLog(table);
+        Assertions.assertEquals("B", replayed.kind, "Restored during replay");
+    }
+
+    /** Check that null fields are skipped without affecting the rest of the object. */
+    @Test
+    /* package */ void testNullFieldsAreSkipped() {
+        final NullableData data = new NullableData();
+        data.value = 2.0;
+        final LogTable table = new LogTable(0);
+        data.toLog(table);
+        Assertions.assertEquals(2.0, table.get("value", 0.0), "Other fields are logged");
+
+        final NullableData replayed = new NullableData();
+        replayed.fromLog(table);
+        Assertions.assertEquals(2.0, replayed.value, "Other fields are replayed");
+        Assertions.assertNull(replayed.state, "Null enum is left alone");
+    }
+
+    /** Check that only objects that can't change under the background thread are copied. */
+    @Test
+    /* package */ void testSnapshotSupport() {
+        Assertions.assertTrue(SnapshotCopier.of(ImmutableData.class).isSupported(),
+                "Immutable objects can be shared");
+        Assertions.assertFalse(SnapshotCopier.of(MutableData.class).isSupported(),
+                "Mutable objects can't be shared");
+        Assertions.assertFalse(SnapshotCopier.of(CustomNestedData.class).isSupported(),
+                "Classes that log themselves aren't copied");
+    }
+}
@@ -0,0 +1,124 @@
+package com.chopshop166.chopshoplib.logging;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.littletonrobotics.junction.inputs.LoggableInputs;
+import com.chopshop166.chopshoplib.ValueRange;
+import com.chopshop166.chopshoplib.drive.SwerveModuleSpeeds;
+import com.chopshop166.chopshoplib.states.OpenClose;
+import edu.wpi.first.util.protobuf.ProtobufSerializable;
+import edu.wpi.first.util.struct.StructSerializable;
+
+/** Tests for finding the logger for a field type. */
+final class FieldLoggerTest {
+
+    /** A type that could be logged as either a struct or a protobuf. */
+    private interface BothSerializable extends ProtobufSerializable, StructSerializable {
+    }
+
+    /** An enum that isn't registered. */
+    private enum Unregistered {
+        /** Only value. */
+        VALUE
+    }
+
+    /**
+     * A record with a nested record and some other primitives.
+     *
+     * @param range The nested record.
+     * @param count An integer.
+     * @param enabled A boolean.
+     */
+    private record Composite(ValueRange range, int count, boolean enabled) {
+    }
+
+    /**
+     * A record that can't be packed.
+     *
+     * @param name A string.
+     */
+    private record Named(String name) {
+    }
+
+    /**
+     * A record that contains itself.
+     *
+     * @param value A double.
+     * @param next The next link.
+     */
+    private record Link(double value, Link next) {
+    }
+
+    /**
+     * A record that contains itself through another record.
+     *
+     * @param pong The other record.
+     */
+    private record Ping(Pong pong) {
+    }
+
+    /**
+     * A record that contains itself through another record.
+     *
+     * @param ping The other record.
+     */
+    private record Pong(Ping ping) {
+    }
+
+    /** Check that registered types are found directly. */
+    @Test
+    /* package */ void testExactType() {
+        Assertions.assertNotNull(FieldLogger.forType(double.class), "Primitives are loggable");
+        Assertions.assertNotSame(FieldLogger.ENUM_LOGGER, FieldLogger.forType(OpenClose.class),
+                "Registered enums use their own logger");
+        Assertions.assertNull(FieldLogger.forType(Object.class), "Object isn't loggable");
+    }
+
+    /** Check that unregistered types pick the earliest registered supertype. */
+    @Test
+    /* package */ void testFallbackPrecedence() {
+        Assertions.assertSame(FieldLogger.forType(StructSerializable.class),
+                FieldLogger.forType(BothSerializable.class), "Structs take precedence");
+        Assertions.assertSame(FieldLogger.forType(LoggableInputs.class),
+                FieldLogger.forType(DataWrapper.class), "Data objects log as inputs");
+        Assertions.assertSame(FieldLogger.ENUM_LOGGER, FieldLogger.forType(Unregistered.class),
+                "Other enums log as strings");
+    }
+
+    /** Check that records made of primitives are logged as derived structs. */
+    @Test
+    /* package */ void testRecordStruct() {
+        Assertions.assertSame(FieldLogger.RECORD_LOGGER, FieldLogger.forType(ValueRange.class),
+                "Records of primitives are structs");
+        Assertions.assertNull(FieldLogger.forType(Named.class), "Records of strings aren't");
+
+        final RecordStruct<SwerveModuleSpeeds> speeds = RecordStruct.of(SwerveModuleSpeeds.class);
+        Assertions.assertEquals("double drive;double steering", speeds.getSchema(),
+                "Schema lists the components");
+        Assertions.assertEquals(16, speeds.getSize(), "Two doubles are packed");
+
+        final RecordStruct<Composite> struct = RecordStruct.of(Composite.class);
+        Assertions.assertEquals(1, struct.getNested().length, "Nested record is listed");
+        final Composite value = new Composite(new ValueRange(-1.0, 2.5), 7, true);
+        final ByteBuffer buffer =
+                ByteBuffer.allocate(struct.getSize()).order(ByteOrder.LITTLE_ENDIAN);
+        struct.pack(buffer, value);
+        buffer.flip();
+        Assertions.assertEquals(value, struct.unpack(buffer), "Record survives a round trip");
+    }
+
+    /** Check that records that contain themselves aren't structs. */
+    @Test
+    /* package */ void testRecursiveRecord() {
+        Assertions.assertFalse(RecordStruct.isSupported(Link.class),
+                "Self-referential records aren't structs");
+        Assertions.assertFalse(RecordStruct.isSupported(Pong.class),
+                "Mutually referential records aren't structs");
+        Assertions.assertFalse(RecordStruct.isSupported(Ping.class),
+                "Both sides of the cycle are rejected");
+        Assertions.assertNotSame(FieldLogger.RECORD_LOGGER, FieldLogger.forType(Link.class),
+                "They fall back to the non-struct path");
+    }
+}
@@ -0,0 +1,150 @@
+package com.chopshop166.chopshoplib.logging;
+
+import java.util.Locale;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.littletonrobotics.junction.LogTable;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.units.Units;
+import edu.wpi.first.units.measure.Distance;
+import edu.wpi.first.util.struct.StructSerializable;
+
+/** Tests for the loggers generated by the annotation processor. */
+final class GeneratedLoggerTest {
+
+    /** The modes of the sample data. */
+    public enum Mode {
+        /** The first mode. */
+        IDLE,
+        /** The second mode. */
+        RUNNING;
+
+        @Override
+        public String toString() {
+            return this.name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /** A record that gets logged as a struct. */
+    public record Range(double min, double max) {
+    }
+
+    /** A data object with a generated logger. */
+    @GenerateLogData
+    public static class SampleData extends DataWrapper {
+        /** A renamed field. */
+        @LogName("Value")
+        public double value;
+        /** An array field. */
+        public int[] counts = new int[0];
+        /** A string field. */
+        public String name = "";
+        /** An enum field. */
+        public Mode mode = Mode.IDLE;
+        /** A struct logged through one of its supertypes. */
+        @LogDataAs(StructSerializable.class)
+        public Rotation2d angle = Rotation2d.kZero;
+        /** A record field. */
+        public Range range;
+        /** A measure field. */
+        public Distance distance = Units.Meters.of(0.0);
+        /** A nested data object. */
+        public NestedData nested = new NestedData();
+    }
+
+    /** A data object that's logged without a generated logger. */
+    public static class ReflectedData extends DataWrapper {
+        /** An enum field. */
+        public Mode mode = Mode.IDLE;
+    }
+
+    /** A data object nested in another one. */
+    @GenerateLogData
+    public static class NestedData extends DataWrapper {
+        /** A boolean field. */
+        public boolean flag;
+    }
+
+    /** Check that the processor generated a logger for the sample data. */
+    @Test
+    /* package */ void testLoggerIsGenerated() {
+        Assertions.assertDoesNotThrow(
+                () -> Class.forName(GeneratedLoggerTest.class.getName() + "_SampleDataLogger"),
+                "Logger is generated next to the data class");
+    }
+
+    /** Check that data written to a table through the generated logger can be read back. */
+    @Test
+    /* package */ void testRoundTrip() {
+        final SampleData original = new SampleData();
+        original.value = 4.5;
+        original.counts = new int[] {1, 2, 3};
+        original.name = "arm";
+        original.mode = Mode.RUNNING;
+        original.angle = Rotation2d.fromDegrees(90.0);
+        original.range = new Range(-1.0, 2.0);
+        original.distance = Units.Meters.of(1.25);
+        original.nested.flag = true;
+
+        final LogTable table = new LogTable(0);
+        original.toLog(table);
+        Assertions.assertEquals(4.5, table.get("Value", 0.0), "Uses the logged name");
+
+        final SampleData replayed = new SampleData();
+        replayed.fromLog(table);
+        Assertions.assertEquals(4.5, replayed.value, "Primitive is replayed");
+        Assertions.assertArrayEquals(new int[] {1, 2, 3}, replayed.counts, "Array is replayed");
+        Assertions.assertEquals("arm", replayed.name, "String is replayed");
+        Assertions.assertEquals(Mode.RUNNING, replayed.mode, "Enum is replayed");
+        Assertions.assertEquals(90.0, replayed.angle.getDegrees(), 1e-9,
+                "Struct is cast back to the field type");
+        Assertions.assertEquals(new Range(-1.0, 2.0), replayed.range, "Record is replayed");
+        Assertions.assertEquals(1.25, replayed.distance.in(Units.Meters), 1e-9,
+                "Measure is cast back to the field type");
+        Assertions.assertTrue(replayed.nested.flag, "Nested data is replayed");
+    }
+
+    /** Check that enums are logged by name, with or without a generated logger. */
+    @Test
+    /* package */ void testEnumsLogByName() {
+        final SampleData generated = new SampleData();
+        generated.mode = Mode.RUNNING;
+        final LogTable generatedTable = new LogTable(0);
+        generated.toLog(generatedTable);
+
+        final ReflectedData reflected = new ReflectedData();
+        reflected.mode = Mode.RUNNING;
+        final LogTable reflectedTable = new LogTable(0);
+        reflected.toLog(reflectedTable);
+
+        Assertions.assertEquals("RUNNING", generatedTable.get("mode", ""),
+                "Generated loggers log the name");
+        Assertions.assertEquals("RUNNING", reflectedTable.get("mode", ""),
+                "Other loggers log the name, not the string");
+
+        final ReflectedData replayed = new ReflectedData();
+        replayed.fromLog(reflectedTable);
+        Assertions.assertEquals(Mode.RUNNING, replayed.mode, "Enum is replayed by name");
+    }
+
+    /** Check that null fields are skipped rather than failing the whole object. */
+    @Test
+    /* package */ void testNullFieldsAreSkipped() {
+        final SampleData original = new SampleData();
+        original.value = 1.5;
+        original.name = null;
+        original.mode = null;
+        original.angle = null;
+        original.nested = null;
+
+        final LogTable table = new LogTable(0);
+        Assertions.assertDoesNotThrow(() -> original.toLog(table), "Null fields aren't logged");
+        Assertions.assertEquals(1.5, table.get("Value", 0.0), "Other fields are still logged");
+
+        final SampleData replayed = new SampleData();
+        replayed.mode = null;
+        replayed.nested = null;
+        Assertions.assertDoesNotThrow(() -> replayed.fromLog(table), "Null fields aren't read");
+        Assertions.assertEquals(1.5, replayed.value, "Other fields are still read");
+    }
+}
@@ -0,0 +1,53 @@
+package com.chopshop166.chopshoplib.logging;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.littletonrobotics.junction.LogReplaySource;
+import org.littletonrobotics.junction.LogTable;
+
+/** Tests for replaying logs without a robot. */
+final class ReplayHarnessTest {
+
+    /** Data object to replay into. */
+    public static class CycleData extends DataWrapper {
+        /** The value logged on each cycle. */
+        public int cycle;
+    }
+
+    /** Check that every cycle is read into the data objects. */
+    @Test
+    /* package */ void testReplayEveryCycle() {
+        final LogReplaySource source = new LogReplaySource() {
+            /** The number of cycles provided so far. */
+            private int provided;
+
+            @Override
+            public void start() {
+                this.provided = 0;
+            }
+
+            @Override
+            public void end() {
+                // Nothing to close
+            }
+
+            @Override
+            public boolean updateTable(final LogTable table) {
+                if (this.provided == 3) {
+                    return false;
+                }
+                this.provided++;
+                table.put("Test/cycle", this.provided);
+                return true;
+            }
+        };
+        final CycleData data = new CycleData();
+        final int[] seen = new int[1];
+        final ReplayHarness.Result result = new ReplayHarness(source).add("Test", data)
+                .run(() -> seen[0] += data.cycle);
+
+        Assertions.assertEquals(3, result.cycles(), "Every cycle is replayed");
+        Assertions.assertEquals(1 + 2 + 3, seen[0], "Data is filled before each callback");
+        Assertions.assertEquals(3, data.cycle, "Data holds the last cycle");
+    }
+}
@@ -0,0 +1,46 @@
+package com.chopshop166.chopshoplib.logging.data;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import com.chopshop166.chopshoplib.motors.SmartMotorController;
+import com.chopshop166.chopshoplib.motors.SmartMotorControllerGroup;
+
+/** Tests for logging the telemetry of every motor in columns. */
+final class MotorTelemetryDataTest {
+
+    /** A motor that reports a fixed current. */
+    private static class FixedCurrentMotor extends SmartMotorController {
+        /** The current to report. */
+        private final double current;
+
+        /**
+         * Constructor.
+         *
+         * @param current The current to report.
+         */
+        /* package */ FixedCurrentMotor(final double current) {
+            super();
+            this.current = current;
+        }
+
+        @Override
+        public double[] getCurrentAmps() {
+            return new double[] {this.current};
+        }
+    }
+
+    /** Check that grouped motors take one column entry each. */
+    @Test
+    /* package */ void testTelemetryColumns() {
+        final MotorTelemetryData telemetry = new MotorTelemetryData()
+                .register("Single", new FixedCurrentMotor(4.0))
+                .register("Group", new SmartMotorControllerGroup(new FixedCurrentMotor(5.0),
+                        new FixedCurrentMotor(6.0)));
+        telemetry.update();
+        Assertions.assertArrayEquals(new String[] {"Single", "Group[0]", "Group[1]"},
+                telemetry.names, "Names line up with the motors");
+        Assertions.assertArrayEquals(new double[] {4.0, 5.0, 6.0}, telemetry.currentAmps,
+                "Currents are stored in one column");
+        Assertions.assertEquals(3, telemetry.distance.length, "Every column is the same size");
+    }
+}
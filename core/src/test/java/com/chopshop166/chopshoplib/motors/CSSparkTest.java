@@ -0,0 +1,37 @@
+package com.chopshop166.chopshoplib.motors;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/** Tests for caching Spark telemetry. */
+final class CSSparkTest {
+
+    /** Check that a value is read the first time, then again once its period has passed. */
+    @Test
+    /* package */ void testReadWindow() {
+        final long start = TimeUnit.SECONDS.toNanos(5);
+        final CSSpark.ReadWindow window = new CSSpark.ReadWindow(10);
+        Assertions.assertTrue(window.isDue(start), "First read goes to the Spark");
+        Assertions.assertFalse(window.isDue(start + TimeUnit.MILLISECONDS.toNanos(9)),
+                "Reads within the period are cached");
+        Assertions.assertTrue(window.isDue(start + TimeUnit.MILLISECONDS.toNanos(10)),
+                "Reads after the period go to the Spark");
+        Assertions.assertFalse(window.isDue(start + TimeUnit.MILLISECONDS.toNanos(15)),
+                "The period starts again from the last read");
+    }
+
+    /** Check that a value read once per loop is read again every loop, even with jitter. */
+    @Test
+    /* package */ void testDefaultPeriodIsShorterThanLoop() {
+        final CSSpark.ReadWindow window =
+                new CSSpark.ReadWindow(CSSpark.DEFAULT_ELECTRICAL_PERIOD_MS);
+        long now = 0;
+        Assertions.assertTrue(window.isDue(now), "First loop reads");
+        for (int loop = 1; loop < 10; loop++) {
+            // Alternate early and late loops around 20ms
+            now += TimeUnit.MILLISECONDS.toNanos(loop % 2 == 0 ? 22 : 18);
+            Assertions.assertTrue(window.isDue(now), "Every loop reads a new value");
+        }
+    }
+}
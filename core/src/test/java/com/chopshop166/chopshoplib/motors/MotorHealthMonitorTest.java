@@ -0,0 +1,63 @@
+package com.chopshop166.chopshoplib.motors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/** Tests for evaluating motor validators once per cycle. */
+final class MotorHealthMonitorTest {
+
+    /** The motor under test. */
+    private final SmartMotorController motor = new SmartMotorController();
+    /** Whether the second validator passes. */
+    private boolean healthy = true;
+    /** The number of times the first validator was checked. */
+    private int checks;
+
+    /** Stop monitoring the motor, so it doesn't leak into other tests. */
+    @AfterEach
+    /* package */ void unregister() {
+        MotorHealthMonitor.unregister(this.motor);
+    }
+
+    /** Add the validators and register the motor. */
+    private void register() {
+        this.motor.addValidator(() -> {
+            this.checks++;
+            return true;
+        });
+        this.motor.addValidator(() -> this.healthy);
+        MotorHealthMonitor.register("Test", this.motor);
+    }
+
+    /** Check that the monitor sets one bit per failing validator. */
+    @Test
+    /* package */ void testFaultMask() {
+        this.register();
+
+        MotorHealthMonitor.periodic();
+        Assertions.assertFalse(this.motor.errored(), "Passing validators aren't errors");
+        this.healthy = false;
+        Assertions.assertFalse(this.motor.errored(), "Errors only change when the monitor runs");
+        Assertions.assertTrue(this.motor.validate(), "Validating reads the monitor's result");
+        Assertions.assertEquals(1, this.checks, "Reading the result doesn't evaluate again");
+
+        MotorHealthMonitor.periodic();
+        Assertions.assertTrue(this.motor.errored(), "Failing validator is an error");
+        Assertions.assertFalse(this.motor.validate(), "Failing validator doesn't validate");
+        Assertions.assertEquals(0b10, this.motor.getFaultMask(), "Only the failing bit is set");
+    }
+
+    /** Check that an unregistered motor evaluates its own validators again. */
+    @Test
+    /* package */ void testUnregister() {
+        this.register();
+        final int registered = MotorHealthMonitor.size();
+
+        MotorHealthMonitor.unregister(this.motor);
+        Assertions.assertEquals(registered - 1, MotorHealthMonitor.size(), "Motor is removed");
+        this.healthy = false;
+        Assertions.assertTrue(this.motor.errored(), "Validators are evaluated when read");
+        Assertions.assertEquals(1, this.checks, "Reading evaluates every validator");
+    }
+}
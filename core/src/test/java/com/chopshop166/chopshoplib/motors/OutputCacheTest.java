@@ -0,0 +1,51 @@
+package com.chopshop166.chopshoplib.motors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/** Tests for skipping repeated motor outputs. */
+final class OutputCacheTest {
+
+    /** A motor controller that counts how often it's set. */
+    private static class CountingMotor extends MockMotorController {
+        /** The number of times it was set. */
+        private int sets;
+
+        @Override
+        public void set(final double speed) {
+            super.set(speed);
+            this.sets++;
+        }
+    }
+
+    /** Check that only changed outputs reach the motor controller. */
+    @Test
+    /* package */ void testSkipsRepeatedOutputs() {
+        final CountingMotor motor = new CountingMotor();
+        final SmartMotorController smart = new SmartMotorController(motor);
+        smart.enableOutputCache(0.01, 60.0);
+
+        smart.set(0.5);
+        smart.set(0.505);
+        Assertions.assertEquals(1, motor.sets, "Output within tolerance is skipped");
+        smart.set(0.6);
+        Assertions.assertEquals(2, motor.sets, "Changed output is sent");
+        smart.set(0.005);
+        smart.set(0.0);
+        Assertions.assertEquals(4, motor.sets, "Going to zero is always sent");
+
+        smart.disableOutputCache();
+        smart.set(0.0);
+        Assertions.assertEquals(5, motor.sets, "Everything is sent without the cache");
+    }
+
+    /** Check that the same output is sent again once the keepalive passes. */
+    @Test
+    /* package */ void testKeepalive() {
+        final OutputCache cache = new OutputCache(0.01, 0.0);
+        Assertions.assertTrue(cache.shouldSend(OutputCache.SET, 1.0), "First output is sent");
+        Assertions.assertTrue(cache.shouldSend(OutputCache.SET, 1.0),
+                "Output is resent after the keepalive");
+        Assertions.assertEquals(0, cache.getSkipped(), "Nothing was skipped");
+    }
+}
@@ -0,0 +1,60 @@
+package com.chopshop166.chopshoplib.motors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/** Tests for reading telemetry from a group of motors. */
+final class SmartMotorControllerGroupTest {
+
+    /** A motor that reports fixed currents. */
+    private static class FixedCurrentMotor extends SmartMotorController {
+        /** The currents to report. */
+        private final double[] currents;
+
+        /**
+         * Constructor.
+         *
+         * @param currents The currents to report.
+         */
+        /* package */ FixedCurrentMotor(final double... currents) {
+            super();
+            this.currents = currents.clone();
+        }
+
+        @Override
+        public double[] getCurrentAmps() {
+            return this.currents.clone();
+        }
+    }
+
+    /** Check that each motor's data is written after the previous one's. */
+    @Test
+    /* package */ void testReadIntoOffsets() {
+        final SmartMotorControllerGroup group = new SmartMotorControllerGroup(
+                new FixedCurrentMotor(1.0), new FixedCurrentMotor(2.0), new FixedCurrentMotor(3.0));
+        Assertions.assertEquals(3, group.getMotorCount(), "Counts every motor");
+
+        final double[] out = new double[4];
+        Assertions.assertEquals(3, group.readCurrentAmps(out, 1), "Writes one entry per motor");
+        Assertions.assertArrayEquals(new double[] {0.0, 1.0, 2.0, 3.0}, out,
+                "Entries start at the offset");
+        Assertions.assertArrayEquals(group.getCurrentAmps(), new double[] {1.0, 2.0, 3.0},
+                "Matches the allocating getter");
+    }
+
+    /** Check that a motor reporting several values is counted without overriding the count. */
+    @Test
+    /* package */ void testDefaultMotorCount() {
+        final SmartMotorControllerGroup group = new SmartMotorControllerGroup(
+                new FixedCurrentMotor(1.0, 2.0), new FixedCurrentMotor(3.0));
+        Assertions.assertEquals(3, group.getMotorCount(), "Counts every reported value");
+        final double[] all = new double[3];
+        Assertions.assertEquals(3, group.readCurrentAmps(all, 0), "Reads every reported value");
+        Assertions.assertArrayEquals(new double[] {1.0, 2.0, 3.0}, all, "Values are in order");
+
+        final double[] out = new double[2];
+        Assertions.assertEquals(1, new FixedCurrentMotor(1.0, 2.0).readCurrentAmps(out, 1),
+                "Stops at the end of the array");
+        Assertions.assertArrayEquals(new double[] {0.0, 1.0}, out, "Only copies what fits");
+    }
+}
@@ -0,0 +1,134 @@
+package com.chopshop166.chopshoplib.motors;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.DoubleSupplier;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import com.chopshop166.chopshoplib.sensors.MockEncoder;
+import edu.wpi.first.math.controller.PIDController;
+
+/** Tests for running software PID loops together. */
+final class SwPIDSchedulerTest {
+
+    /** A controller that never starts its loop, so the test runs it instead. */
+    public static class UnscheduledLoop extends SwPIDMotorController {
+        /**
+         * Create a controller.
+         *
+         * @param motor The motor to drive.
+         * @param pid The PID controller.
+         * @param measurement The measurement source.
+         */
+        public UnscheduledLoop(final MockMotorController motor, final PIDController pid,
+                final DoubleSupplier measurement) {
+            super(motor, new MockEncoder(), pid, measurement);
+        }
+
+        @Override
+        /* package */ void startLoop() {
+            // The test calls measure and calculate itself
+        }
+    }
+
+    /** A controller that records when it measures and calculates, without being scheduled. */
+    public static class RecordingLoop extends SwPIDMotorController {
+        /** The name of the controller. */
+        private final String name;
+        /** The calls made by every controller, in order. */
+        private final List<String> calls;
+
+        /**
+         * Create a controller.
+         *
+         * @param name The name of the controller.
+         * @param calls The calls made by every controller, in order.
+         */
+        public RecordingLoop(final String name, final List<String> calls) {
+            super(new MockMotorController(), new MockEncoder(), new PIDController(1.0, 0.0, 0.0),
+                    () -> 0.0);
+            this.name = name;
+            this.calls = calls;
+        }
+
+        @Override
+        /* package */ void measure() {
+            this.calls.add("measure " + this.name);
+        }
+
+        @Override
+        /* package */ void calculate() {
+            this.calls.add("calculate " + this.name);
+        }
+    }
+
+    /** Check that every measurement is read before any output is calculated. */
+    @Test
+    /* package */ void testMeasureBeforeCalculate() {
+        final List<String> calls = new ArrayList<>();
+        final SwPIDScheduler.ControlLoop control = new SwPIDScheduler.ControlLoop(0.02);
+        control.add(new RecordingLoop("a", calls));
+        control.add(new RecordingLoop("b", calls));
+
+        control.runCycle();
+        Assertions.assertEquals(List.of("measure a", "measure b", "calculate a", "calculate b"),
+                calls, "Every loop measures before any loop calculates");
+    }
+
+    /** Check that the jitter of each cycle accumulates until it's reset. */
+    @Test
+    /* package */ void testStats() {
+        final SwPIDScheduler.ControlLoop control = new SwPIDScheduler.ControlLoop(0.02);
+        final long start = 1_000_000_000L;
+        control.recordCycle(start, 1_000L);
+        Assertions.assertEquals(0, control.getStats().cycles(), "First cycle only sets the start");
+
+        control.recordCycle(start + 21_000_000L, 2_000L);
+        control.recordCycle(start + 41_000_000L, 500L);
+        final SwPIDScheduler.Stats stats = control.getStats();
+        Assertions.assertEquals(2, stats.cycles(), "Cycles are counted");
+        Assertions.assertEquals(0.0005, stats.meanJitter(), 1e-9, "Jitter is averaged");
+        Assertions.assertEquals(0.001, stats.maxJitter(), 1e-9, "Largest jitter is kept");
+        Assertions.assertEquals(2e-6, stats.maxRunTime(), 1e-12, "Slowest run time is kept");
+
+        control.resetStats();
+        Assertions.assertEquals(new SwPIDScheduler.Stats(0, 0.0, 0.0, 0.0), control.getStats(),
+                "Stats are cleared");
+        control.recordCycle(start + 100_000_000L, 1_000L);
+        Assertions.assertEquals(0, control.getStats().cycles(),
+                "First cycle after a reset only sets the start");
+    }
+
+    /** Check that a new setpoint is applied on the control thread, not by the caller. */
+    @Test
+    /* package */ void testSetpointAppliedByCalculate() {
+        final PIDController pid = new PIDController(1.0, 0.0, 0.0);
+        final MockMotorController motor = new MockMotorController();
+        final SwPIDMotorController loop = new UnscheduledLoop(motor, pid, () -> 1.0);
+
+        loop.setSetpoint(3.0);
+        Assertions.assertEquals(0.0, pid.getSetpoint(), "Setpoint waits for the control thread");
+        loop.measure();
+        loop.calculate();
+        Assertions.assertEquals(3.0, pid.getSetpoint(), "Setpoint is applied before calculating");
+        Assertions.assertEquals(2.0, motor.get(), 1e-9, "Output uses the new setpoint");
+    }
+
+    /** Check that the error and tolerance are published back from the control thread. */
+    @Test
+    /* package */ void testResultsArePublished() {
+        final SwPIDMotorController loop =
+                new UnscheduledLoop(new MockMotorController(), new PIDController(1.0, 0.0, 0.0),
+                        () -> 1.0);
+        loop.setSetpoint(1.5);
+        loop.setTolerance(0.1);
+        loop.measure();
+        loop.calculate();
+        Assertions.assertEquals(0.5, loop.getError(), 1e-9, "Error is published");
+        Assertions.assertFalse(loop.atSetpoint(), "Outside the tolerance");
+
+        loop.setTolerance(1.0);
+        loop.calculate();
+        Assertions.assertTrue(loop.atSetpoint(), "New tolerance is applied");
+    }
+}
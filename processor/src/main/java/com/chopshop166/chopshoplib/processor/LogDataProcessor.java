@@ -0,0 +1,561 @@
+package com.chopshop166.chopshoplib.processor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.RecordComponentElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+/**
+ * Annotation processor that writes a reflection-free logger for each class annotated with
+ * {@code @GenerateLogData}.
+ *
+ * The generated class is named after the data class (with nested class names joined by
+ * underscores) followed by {@code Logger}, and is placed in the same package.
+ */
+@SupportedAnnotationTypes(LogDataProcessor.GENERATE_LOG_DATA)
+public class LogDataProcessor extends AbstractProcessor {
+
+    /** The package containing the logging annotations. */
+    private static final String LOGGING = "com.chopshop166.chopshoplib.logging";
+    /** The annotation that marks a class for generation. */
+    /* package */ static final String GENERATE_LOG_DATA = LOGGING + ".GenerateLogData";
+    /** The annotation that disables logging for a field. */
+    private static final String NO_LOG = LOGGING + ".NoLog";
+    /** The annotation that renames a field. */
+    private static final String LOG_NAME = LOGGING + ".LogName";
+    /** The annotation that makes a field only get logged every few cycles. */
+    private static final String LOG_EVERY = LOGGING + ".LogEvery";
+    /** The annotation that makes a field only get logged when it changes. */
+    private static final String LOG_ONCE = LOGGING + ".LogOnce";
+    /** The annotation that overrides the type a field is logged as. */
+    private static final String LOG_DATA_AS = LOGGING + ".LogDataAs";
+    /** The interface that generated loggers implement. */
+    private static final String DATA_LOGGER = LOGGING + ".DataLogger";
+    /** The delta logging state type. */
+    private static final String LOG_STATE = LOGGING + ".LogState";
+    /** The default data object base class. */
+    private static final String DATA_WRAPPER = LOGGING + ".DataWrapper";
+    /** The log table type. */
+    private static final String LOG_TABLE = "org.littletonrobotics.junction.LogTable";
+    /** Types that contain their own set of inputs. */
+    private static final String LOGGABLE_INPUTS =
+            "org.littletonrobotics.junction.inputs.LoggableInputs";
+    /** The measure type. */
+    private static final String MEASURE = "edu.wpi.first.units.Measure";
+    /** Reference types that the log table can store directly, in order of precedence. */
+    private static final List<String> VALUE_TYPES = List.of("java.lang.String",
+            "edu.wpi.first.util.struct.StructSerializable",
+            "edu.wpi.first.util.protobuf.ProtobufSerializable", MEASURE);
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations,
+            final RoundEnvironment roundEnv) {
+        for (final TypeElement annotation : annotations) {
+            for (final Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() == ElementKind.CLASS) {
+                    this.generate((TypeElement) element);
+                } else {
+                    this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                            "@GenerateLogData can only be applied to classes", element);
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Write the logger for a single data class.
+     *
+     * @param type The annotated class.
+     */
+    private void generate(final TypeElement type) {
+        final PackageElement pkg = this.processingEnv.getElementUtils().getPackageOf(type);
+        final String packageName = pkg.getQualifiedName().toString();
+        final String dataName = type.getQualifiedName().toString();
+        final String loggerName = loggerName(type);
+        final List<LogField> fields = this.collectFields(type);
+
+        try (PrintWriter out = new PrintWriter(this.processingEnv.getFiler()
+                .createSourceFile(
+                        packageName.isEmpty() ? loggerName : packageName + "." + loggerName,
+                        type)
+                .openWriter())) {
+            if (!packageName.isEmpty()) {
+                out.println("package " + packageName + ";");
+                out.println();
+            }
+            out.println("/** Generated logger for {@link " + dataName + "}. */");
+            out.println("@javax.annotation.processing.Generated(\""
+                    + LogDataProcessor.class.getName() + "\")");
+            out.println("public final class " + loggerName + " implements " + DATA_LOGGER + "<"
+                    + dataName + "> {");
+            out.println();
+            out.println("    @Override");
+            out.println("    public void toLog(final " + dataName + " data, final " + LOG_TABLE
+                    + " table, final " + LOG_STATE + " state) {");
+            out.println("        state.begin(" + countLeaves(fields) + ");");
+            writeToLog(out, fields, "        ", new int[1]);
+            out.println("        state.end();");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public void fromLog(final " + dataName + " data, final " + LOG_TABLE
+                    + " table) {");
+            writeFromLog(out, fields, "        ");
+            out.println("    }");
+            out.println("}");
+        } catch (final IOException ex) {
+            this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Could not write logger: " + ex.getMessage(), type);
+        }
+    }
+
+    /**
+     * Count the fields that get a delta logging slot, including flattened ones.
+     *
+     * @param fields The fields.
+     * @return The number of value fields.
+     */
+    private static int countLeaves(final List<LogField> fields) {
+        int count = 0;
+        for (final LogField field : fields) {
+            if (field.isFlattened()) {
+                count += countLeaves(field.children());
+            } else if (!field.isNested()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Write the statements that log a set of fields.
+     *
+     * @param out The generated source.
+     * @param fields The fields to log.
+     * @param indent The indentation to use.
+     * @param slot The next delta logging slot, updated as fields are written.
+     */
+    private static void writeToLog(final PrintWriter out, final List<LogField> fields,
+            final String indent, final int[] slot) {
+        for (final LogField field : fields) {
+            String inner = indent;
+            final String condition;
+            if (field.isNested()) {
+                condition = field.condition(field.nonNull());
+            } else {
+                final String check = field.once() ? "state.once(" : "state.changed(";
+                final String nonNull = field.nullable() ? field.nonNull() + " && " : "";
+                condition = field.condition(
+                        nonNull + check + slot[0] + ", " + field.value() + ")");
+                slot[0]++;
+            }
+            if (condition != null) {
+                out.println(indent + "if (" + condition + ") {");
+                inner = indent + "    ";
+            }
+            if (field.isFlattened()) {
+                // Write the nested fields straight into this table, unless a subclass is there
+                out.println(inner + "if (" + field.exactTypeCheck() + ") {");
+                writeToLog(out, field.children(), inner + "    ", slot);
+                out.println(inner + "} else {");
+                out.println(inner + "    " + field.value() + ".toLog(table.getSubtable("
+                        + field.keyLiteral() + "));");
+                out.println(inner + "}");
+            } else if (field.isNested()) {
+                out.println(inner + field.value() + ".toLog(table.getSubtable("
+                        + field.keyLiteral() + "));");
+            } else if (field.structType() != null) {
+                out.println(inner + "table.put(" + field.keyLiteral() + ", " + field.struct()
+                        + ", " + field.value() + ");");
+            } else {
+                out.println(inner + "table.put(" + field.keyLiteral() + ", " + field.value()
+                        + ");");
+            }
+            if (condition != null) {
+                out.println(indent + "}");
+            }
+        }
+    }
+
+    /**
+     * Write the statements that read a set of fields back from the log.
+     *
+     * @param out The generated source.
+     * @param fields The fields to read.
+     * @param indent The indentation to use.
+     */
+    private static void writeFromLog(final PrintWriter out, final List<LogField> fields,
+            final String indent) {
+        for (final LogField field : fields) {
+            if (!field.isNested() && field.isFinal()) {
+                continue;
+            }
+            String inner = indent;
+            if (field.readNeedsValue()) {
+                // Nothing to read into, and the log table can't tell what type to read
+                out.println(indent + "if (" + field.nonNull() + ") {");
+                inner = indent + "    ";
+            }
+            if (field.isFlattened()) {
+                out.println(inner + "if (" + field.exactTypeCheck() + ") {");
+                writeFromLog(out, field.children(), inner + "    ");
+                out.println(inner + "} else {");
+                out.println(inner + "    " + field.value() + ".fromLog(table.getSubtable("
+                        + field.keyLiteral() + "));");
+                out.println(inner + "}");
+            } else if (field.isNested()) {
+                out.println(inner + field.value() + ".fromLog(table.getSubtable("
+                        + field.keyLiteral() + "));");
+            } else {
+                final String struct = field.structType() == null ? "" : field.struct() + ", ";
+                out.println(inner + field.access() + " = " + field.readBack("table.get("
+                        + field.keyLiteral() + ", " + struct + field.value() + ")") + ";");
+            }
+            if (field.readNeedsValue()) {
+                out.println(indent + "}");
+            }
+        }
+    }
+
+    /**
+     * Get the name of the generated logger for a class.
+     *
+     * @param type The data class.
+     * @return The simple name of the logger.
+     */
+    private static String loggerName(final TypeElement type) {
+        final Deque<String> names = new ArrayDeque<>();
+        Element current = type;
+        while (current instanceof TypeElement) {
+            names.addFirst(current.getSimpleName().toString());
+            current = current.getEnclosingElement();
+        }
+        return String.join("_", names) + "Logger";
+    }
+
+    /**
+     * Find every loggable field of a class, including inherited ones.
+     *
+     * @param type The data class.
+     * @return The fields, from the base class down.
+     */
+    private List<LogField> collectFields(final TypeElement type) {
+        final Deque<TypeElement> path = new ArrayDeque<>();
+        path.push(type);
+        return this.collectFields(type, "", "data", path, true);
+    }
+
+    /**
+     * Find every loggable field of a class, including inherited ones.
+     *
+     * @param type The data class.
+     * @param keyPrefix The prefix for each key, for flattened nested data.
+     * @param accessPrefix The expression for the object that holds the fields.
+     * @param path The data classes currently being flattened, to avoid cycles.
+     * @param report Whether to warn about fields that can't be logged.
+     * @return The fields, from the base class down.
+     */
+    private List<LogField> collectFields(final TypeElement type, final String keyPrefix,
+            final String accessPrefix, final Deque<TypeElement> path, final boolean report) {
+        final Deque<TypeElement> hierarchy = new ArrayDeque<>();
+        TypeElement current = type;
+        while (current != null) {
+            hierarchy.addFirst(current);
+            final TypeMirror parent = current.getSuperclass();
+            current = parent.getKind() == TypeKind.DECLARED
+                    ? (TypeElement) ((DeclaredType) parent).asElement()
+                    : null;
+        }
+
+        final List<LogField> result = new ArrayList<>();
+        for (final TypeElement clazz : hierarchy) {
+            for (final VariableElement field : ElementFilter
+                    .fieldsIn(clazz.getEnclosedElements())) {
+                final Set<Modifier> modifiers = field.getModifiers();
+                if (!modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.STATIC)
+                        || findAnnotation(field, NO_LOG) != null) {
+                    continue;
+                }
+                final LogField logField = this.toLogField(field, keyPrefix, accessPrefix, path);
+                if (logField == null) {
+                    if (report) {
+                        this.processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                                "Field type can't be logged, skipping", field);
+                    }
+                } else {
+                    result.add(logField);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Work out how a single field gets logged.
+     *
+     * @param field The field element.
+     * @param keyPrefix The prefix for the key, for flattened nested data.
+     * @param accessPrefix The expression for the object that holds the field.
+     * @param path The data classes currently being flattened, to avoid cycles.
+     * @return The field description, or null if it can't be logged.
+     */
+    private LogField toLogField(final VariableElement field, final String keyPrefix,
+            final String accessPrefix, final Deque<TypeElement> path) {
+        String key = field.getSimpleName().toString();
+        final AnnotationValue logName = annotationValue(findAnnotation(field, LOG_NAME));
+        if (logName != null) {
+            key = (String) logName.getValue();
+        }
+
+        TypeMirror type = field.asType();
+        String castType = null;
+        final AnnotationValue logAs = annotationValue(findAnnotation(field, LOG_DATA_AS));
+        if (logAs != null) {
+            type = (TypeMirror) logAs.getValue();
+            castType = this.processingEnv.getTypeUtils().erasure(type).toString();
+        }
+
+        int every = 1;
+        final AnnotationValue logEvery = annotationValue(findAnnotation(field, LOG_EVERY));
+        if (logEvery != null) {
+            every = (Integer) logEvery.getValue();
+        }
+
+        final boolean once = findAnnotation(field, LOG_ONCE) != null;
+
+        key = keyPrefix + key;
+        final String access = accessPrefix + "." + field.getSimpleName();
+        final boolean isFinal = field.getModifiers().contains(Modifier.FINAL);
+        final String fieldType =
+                this.processingEnv.getTypeUtils().erasure(field.asType()).toString();
+        final boolean nullable = !field.asType().getKind().isPrimitive();
+        if (this.isAssignable(type, LOGGABLE_INPUTS)) {
+            final TypeElement nested = castType == null ? this.flattenable(type, path) : null;
+            if (nested == null) {
+                return new LogField(key, access, castType, fieldType, false, true, true, true,
+                        isFinal, every, false, null, null, null);
+            }
+            path.push(nested);
+            final List<LogField> children =
+                    this.collectFields(nested, key + "/", access, path, false);
+            path.pop();
+            return new LogField(key, access, null, fieldType, false, true, true, true, isFinal,
+                    every, false, null, nested.getQualifiedName().toString(), children);
+        }
+        if (this.isValueType(type)) {
+            // Measures are read back as Measure<U>, so a field of a unit's type needs a cast
+            final boolean castOnRead = this.isAssignable(type, MEASURE) && !MEASURE.equals(
+                    this.processingEnv.getTypeUtils().erasure(type).toString());
+            return new LogField(key, access, castType, fieldType, castOnRead, nullable,
+                    this.readNeedsValue(type), false, isFinal, every, once, null, null, null);
+        }
+        if (this.isStructRecord(type, new ArrayDeque<>())) {
+            final String structType = this.processingEnv.getTypeUtils().erasure(type).toString();
+            return new LogField(key, access, castType, fieldType, false, true, false, false,
+                    isFinal, every, once, structType, null, null);
+        }
+        return null;
+    }
+
+    /**
+     * Check whether a nested data object can be written straight into its parent's table.
+     *
+     * That's only the case for data wrappers that use the default logging, since anything else
+     * might write extra values.
+     *
+     * @param type The declared type of the nested field.
+     * @param path The data classes currently being flattened.
+     * @return The class to flatten, or null if it has to be logged as a subtable.
+     */
+    private TypeElement flattenable(final TypeMirror type, final Deque<TypeElement> path) {
+        if (type.getKind() != TypeKind.DECLARED || !this.isAssignable(type, DATA_WRAPPER)) {
+            return null;
+        }
+        final TypeElement nested = (TypeElement) ((DeclaredType) type).asElement();
+        if (path.contains(nested)) {
+            return null;
+        }
+        TypeElement current = nested;
+        while (current != null && !current.getQualifiedName().contentEquals(DATA_WRAPPER)) {
+            for (final ExecutableElement method : ElementFilter
+                    .methodsIn(current.getEnclosedElements())) {
+                final String name = method.getSimpleName().toString();
+                if (("toLog".equals(name) || "fromLog".equals(name))
+                        && method.getParameters().size() == 1) {
+                    return null;
+                }
+            }
+            final TypeMirror parent = current.getSuperclass();
+            current = parent.getKind() == TypeKind.DECLARED
+                    ? (TypeElement) ((DeclaredType) parent).asElement()
+                    : null;
+        }
+        return nested;
+    }
+
+    /**
+     * Check whether the log table can store a type directly.
+     *
+     * @param type The type to check.
+     * @return True if there is a matching put/get pair.
+     */
+    private boolean isValueType(final TypeMirror type) {
+        switch (type.getKind()) {
+            case BOOLEAN, INT, LONG, DOUBLE:
+                return true;
+            case ARRAY:
+                final TypeMirror component = ((ArrayType) type).getComponentType();
+                return switch (component.getKind()) {
+                    case BOOLEAN, INT, LONG, DOUBLE -> true;
+                    case DECLARED -> this.isAssignable(component, "java.lang.String")
+                            || this.isAssignable(component,
+                                    "edu.wpi.first.util.struct.StructSerializable");
+                    default -> false;
+                };
+            case DECLARED:
+                if (((DeclaredType) type).asElement().getKind() == ElementKind.ENUM) {
+                    return true;
+                }
+                return VALUE_TYPES.stream().anyMatch(name -> this.isAssignable(type, name));
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Check whether the log table needs a non-null default to read a value type.
+     *
+     * Enums, structs, protobufs and measures are read back using the type of the default, so a
+     * null field can't be read.
+     *
+     * @param type The logged type.
+     * @return True if the field has to hold a value to be read.
+     */
+    private boolean readNeedsValue(final TypeMirror type) {
+        final TypeMirror element = type.getKind() == TypeKind.ARRAY
+                ? ((ArrayType) type).getComponentType()
+                : type;
+        return element.getKind() == TypeKind.DECLARED
+                && !this.isAssignable(element, "java.lang.String");
+    }
+
+    /**
+     * Check whether a type is a record that can be logged as a struct.
+     *
+     * Every component has to be a primitive other than char, a struct, or another such record.
+     *
+     * @param type The type to check.
+     * @param path The records currently being checked, to avoid cycles.
+     * @return True if a struct can be derived for it.
+     */
+    private boolean isStructRecord(final TypeMirror type, final Deque<TypeElement> path) {
+        if (type.getKind() != TypeKind.DECLARED
+                || ((DeclaredType) type).asElement().getKind() != ElementKind.RECORD) {
+            return false;
+        }
+        final TypeElement record = (TypeElement) ((DeclaredType) type).asElement();
+        if (path.contains(record)) {
+            return false;
+        }
+        path.push(record);
+        try {
+            for (final RecordComponentElement component : record.getRecordComponents()) {
+                final TypeMirror componentType = component.asType();
+                final boolean packable = switch (componentType.getKind()) {
+                    case BOOLEAN, BYTE, SHORT, INT, LONG, FLOAT, DOUBLE -> true;
+                    case DECLARED -> this.isAssignable(componentType,
+                            "edu.wpi.first.util.struct.StructSerializable")
+                            || this.isStructRecord(componentType, path);
+                    default -> false;
+                };
+                if (!packable) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            path.pop();
+        }
+    }
+
+    /**
+     * Check whether a type can be assigned to a named type.
+     *
+     * @param type The type to check.
+     * @param name The fully qualified name of the target type.
+     * @return True if the target exists and the type is assignable to it.
+     */
+    private boolean isAssignable(final TypeMirror type, final String name) {
+        final TypeElement target = this.processingEnv.getElementUtils().getTypeElement(name);
+        if (target == null) {
+            return false;
+        }
+        final var types = this.processingEnv.getTypeUtils();
+        return types.isAssignable(types.erasure(type), types.erasure(target.asType()));
+    }
+
+    /**
+     * Find an annotation on an element by name.
+     *
+     * @param element The annotated element.
+     * @param name The fully qualified name of the annotation.
+     * @return The annotation, or null if it isn't present.
+     */
+    private static AnnotationMirror findAnnotation(final Element element, final String name) {
+        for (final AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            final Element annotationType = mirror.getAnnotationType().asElement();
+            if (((TypeElement) annotationType).getQualifiedName().contentEquals(name)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the {@code value} member of an annotation.
+     *
+     * @param mirror The annotation, or null.
+     * @return The value, or null if there is no annotation.
+     */
+    private static AnnotationValue annotationValue(final AnnotationMirror mirror) {
+        if (mirror == null) {
+            return null;
+        }
+        for (final var entry : mirror.getElementValues().entrySet()) {
+            final ExecutableElement member = entry.getKey();
+            if (member.getSimpleName().contentEquals("value")) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,118 @@
+package com.chopshop166.chopshoplib.processor;
+
+import java.util.List;
+
+/**
+ * A single field that the generated logger reads and writes.
+ *
+ * @param key The key to log the field as.
+ * @param access The expression used to access the field from the data object.
+ * @param castType The type to cast the field to before logging, or null to use it directly.
+ * @param fieldType The erased declared type of the field, to cast values read back into.
+ * @param castOnRead Whether the log table reads the value back as a wider type than the field.
+ * @param nullable Whether the field can hold null, which is never logged.
+ * @param readNeedsValue Whether reading it back needs the current value to be non-null.
+ * @param isNested Whether the field is itself a set of loggable inputs.
+ * @param isFinal Whether the field can't be assigned during replay.
+ * @param every The number of cycles between each write.
+ * @param once Whether the field is only written when it changes.
+ * @param structType The record class to derive a struct for, or null.
+ * @param nestedType The exact class of a flattened nested data object, or null.
+ * @param children The fields of a flattened nested data object, or null.
+ */
+/* package */ record LogField(String key, String access, String castType, String fieldType,
+        boolean castOnRead, boolean nullable, boolean readNeedsValue, boolean isNested,
+        boolean isFinal, int every, boolean once, String structType, String nestedType,
+        List<LogField> children) {
+
+    /**
+     * Check whether the nested fields are written straight into the parent table.
+     *
+     * @return True if the field is a flattened nested data object.
+     */
+    public boolean isFlattened() {
+        return this.children != null;
+    }
+
+    /**
+     * Get the check that the nested object is exactly the class that was flattened.
+     *
+     * @return The condition expression.
+     */
+    public String exactTypeCheck() {
+        return this.access + ".getClass() == " + this.nestedType + ".class";
+    }
+
+    /**
+     * Get the struct used to log a record field.
+     *
+     * @return The expression for the struct.
+     */
+    public String struct() {
+        return "com.chopshop166.chopshoplib.logging.RecordStruct.of(" + this.structType
+                + ".class)";
+    }
+
+    /**
+     * Get the check that the field holds a value.
+     *
+     * @return The condition expression.
+     */
+    public String nonNull() {
+        return this.access + " != null";
+    }
+
+    /**
+     * Get the expression that converts a value read from the log back to the field's type.
+     *
+     * @param read The expression that reads the value.
+     * @return The expression to assign to the field.
+     */
+    public String readBack(final String read) {
+        final boolean narrowed = this.castType != null && !this.castType.equals(this.fieldType);
+        if (!narrowed && !this.castOnRead) {
+            return read;
+        }
+        return "(" + this.fieldType + ") " + read;
+    }
+
+    /**
+     * Get the expression to pass to the log table.
+     *
+     * @return The (possibly cast) field access expression.
+     */
+    public String value() {
+        return this.castType == null ? this.access
+                : "((" + this.castType + ") " + this.access + ")";
+    }
+
+    /**
+     * Get the condition for writing the field this cycle.
+     *
+     * @param changed The check for whether the value changed, or null if there isn't one.
+     * @return The condition, or null if the field is always written.
+     */
+    public String condition(final String changed) {
+        final String due = this.every > 1 ? "state.due(" + this.every + ")" : null;
+        if (due == null || changed == null) {
+            return due == null ? changed : due;
+        }
+        return due + " && " + changed;
+    }
+
+    /**
+     * Get the key as a Java string literal.
+     *
+     * @return The quoted and escaped key.
+     */
+    public String keyLiteral() {
+        final StringBuilder builder = new StringBuilder("\"");
+        for (final char c : this.key.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                builder.append('\\');
+            }
+            builder.append(c);
+        }
+        return builder.append('"').toString();
+    }
+}